@@ -0,0 +1,99 @@
+package com.appflame.apidemos.benchmarks;
+
+import com.appflame.apidemos.utils.ImageUtils;
+import com.appflame.apidemos.utils.LumaFrame;
+import com.appflame.apidemos.utils.MotionDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Screenshot decoding and full capture-and-compare benchmarks, from PNG bytes as returned by the driver.
+ * Run with {@code -Pjmh.profilers=gc} to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageDecodeBenchmark {
+
+    @Param({"540x1212", "1080x2424"})
+    public String resolution;
+
+    private byte[] beforePng;
+    private byte[] afterPng;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] size = resolution.split("x");
+        int width = Integer.parseInt(size[0]);
+        int height = Integer.parseInt(size[1]);
+        beforePng = ScreenshotFixtures.encode(ScreenshotFixtures.frame(width, height, width / 8));
+        afterPng = ScreenshotFixtures.encode(ScreenshotFixtures.frame(width, height, width / 2));
+    }
+
+    @Benchmark
+    public BufferedImage decodeImageIoRead() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(beforePng));
+    }
+
+    @Benchmark
+    public int decodePooled() throws IOException {
+        BufferedImage image = ImageUtils.decode(beforePng);
+        int width = image.getWidth();
+        ImageUtils.release(image);
+        return width;
+    }
+
+    @Benchmark
+    public int decodeLumaStep2() throws IOException {
+        LumaFrame frame = LumaFrame.decode(beforePng, 2, null);
+        int width = frame.width();
+        frame.release();
+        return width;
+    }
+
+    @Benchmark
+    public int compareImageIoRead() throws IOException {
+        return MotionDetector.findMovementX(
+                ImageIO.read(new ByteArrayInputStream(beforePng)),
+                ImageIO.read(new ByteArrayInputStream(afterPng)));
+    }
+
+    @Benchmark
+    public int comparePooled() throws IOException {
+        BufferedImage before = ImageUtils.decode(beforePng);
+        BufferedImage after = ImageUtils.decode(afterPng);
+        int x = MotionDetector.findMovementX(before, after);
+        ImageUtils.release(before);
+        ImageUtils.release(after);
+        return x;
+    }
+
+    @Benchmark
+    public int compareLumaStep2() throws IOException {
+        LumaFrame before = LumaFrame.decode(beforePng, 2, null);
+        LumaFrame after = LumaFrame.decode(afterPng, 2, null);
+        int x = MotionDetector.findMovementX(before, after);
+        before.release();
+        after.release();
+        return x;
+    }
+}
@@ -0,0 +1,133 @@
+package com.appflame.apidemos.benchmarks;
+
+import com.appflame.apidemos.utils.LumaFrame;
+import com.appflame.apidemos.utils.MotionDetector;
+import com.appflame.apidemos.utils.MotionMask;
+import com.appflame.apidemos.utils.MotionRegion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffing benchmarks at several resolutions: the original two-pass getRGB findMovementX as a baseline,
+ * the raster-backed single-pass engine (with the default and the forced-scalar diff kernel), the parallel
+ * engine, coarse-to-fine localisation and the luminance path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MotionDetectionBenchmark {
+
+    @Param({"540x1212", "1080x2424", "1440x3120"})
+    public String resolution;
+
+    private BufferedImage before;
+    private BufferedImage after;
+    private LumaFrame beforeLuma;
+    private LumaFrame afterLuma;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] size = resolution.split("x");
+        BufferedImage[] pair = ScreenshotFixtures.seekingPair(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        before = pair[0];
+        after = pair[1];
+        beforeLuma = LumaFrame.decode(ScreenshotFixtures.encode(before), 2, null);
+        afterLuma = LumaFrame.decode(ScreenshotFixtures.encode(after), 2, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        beforeLuma.release();
+        afterLuma.release();
+    }
+
+    @Benchmark
+    public int getRgbTwoPass() {
+        return findMovementXGetRgb(before, after);
+    }
+
+    @Benchmark
+    public int rasterSinglePass() {
+        return MotionDetector.findMovementX(before, after);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dapidemos.diffKernel=scalar")
+    public int rasterSinglePassScalarKernel() {
+        return MotionDetector.findMovementX(before, after);
+    }
+
+    @Benchmark
+    public int rasterParallel() {
+        return MotionDetector.findMovementXParallel(before, after);
+    }
+
+    @Benchmark
+    public Optional<MotionRegion> coarseToFine() {
+        return MotionDetector.locateMotion(before, after, MotionMask.fullFrame());
+    }
+
+    @Benchmark
+    public int lumaStep2() {
+        return MotionDetector.findMovementX(beforeLuma, afterLuma);
+    }
+
+    /**
+     * The original findMovementX implementation: two full scans with per-pixel getRGB calls.
+     */
+    static int findMovementXGetRgb(BufferedImage before, BufferedImage after) {
+        int width = before.getWidth();
+        int height = before.getHeight();
+
+        int maxDiff = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int diff = rgbDiff(before.getRGB(x, y), after.getRGB(x, y));
+                if (diff > maxDiff) {
+                    maxDiff = diff;
+                }
+            }
+        }
+        if (maxDiff == 0) {
+            return -1;
+        }
+
+        int dynamicThreshold = maxDiff / 2;
+        long sumX = 0;
+        int count = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (rgbDiff(before.getRGB(x, y), after.getRGB(x, y)) > dynamicThreshold) {
+                    sumX += x;
+                    count++;
+                }
+            }
+        }
+        return count == 0 ? -1 : (int) (sumX / count);
+    }
+
+    private static int rgbDiff(int rgb1, int rgb2) {
+        return Math.abs(((rgb2 >> 16) & 0xFF) - ((rgb1 >> 16) & 0xFF))
+                + Math.abs(((rgb2 >> 8) & 0xFF) - ((rgb1 >> 8) & 0xFF))
+                + Math.abs((rgb2 & 0xFF) - (rgb1 & 0xFF));
+    }
+}
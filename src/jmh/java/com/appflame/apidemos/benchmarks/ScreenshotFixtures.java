@@ -0,0 +1,85 @@
+package com.appflame.apidemos.benchmarks;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Synthetic screenshot pairs resembling the “Animation → Seeking” screen, used by benchmarks.
+ * <p>
+ * Frames are round-tripped through PNG so they have exactly the raster layout that
+ * ImageUtils receives from a real device capture.
+ */
+public class ScreenshotFixtures {
+    public static final int PIXEL_9_WIDTH = 1080;
+    public static final int PIXEL_9_HEIGHT = 2424;
+
+    private ScreenshotFixtures() {
+    }
+
+    /**
+     * Returns a before/after pair in which a circle moved from the left to the middle of the screen.
+     *
+     * @param width  frame width in pixels
+     * @param height frame height in pixels
+     * @return a two-element array: {before, after}
+     */
+    public static BufferedImage[] seekingPair(int width, int height) {
+        return new BufferedImage[]{
+                decode(encode(frame(width, height, width / 8))),
+                decode(encode(frame(width, height, width / 2)))
+        };
+    }
+
+    /**
+     * Renders a single frame with a status bar, a seek bar and a circle centred at circleX.
+     */
+    public static BufferedImage frame(int width, int height, int circleX) {
+        var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(0xFAFAFA));
+            g.fillRect(0, 0, width, height);
+            g.setColor(new Color(0x303F9F));
+            g.fillRect(0, 0, width, height / 30);
+            g.setColor(new Color(0x9E9E9E));
+            g.fillRect(width / 20, height / 6, width - width / 10, height / 200 + 1);
+
+            int radius = Math.max(2, width / 20);
+            g.setColor(new Color(0xE91E63));
+            g.fillOval(circleX - radius, height / 3 - radius, 2 * radius, 2 * radius);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Encodes an image as PNG bytes.
+     */
+    public static byte[] encode(BufferedImage image) {
+        try {
+            var out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes PNG bytes with ImageIO, as ImageUtils does for device screenshots.
+     */
+    public static BufferedImage decode(byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-command round-trip overhead of the driver's HTTP client against the in-process {@link FakeAppiumServer},
+ * which adds no latency of its own. “selenium” is the client AndroidDriver builds from a bare URL; “tuned” is
+ * the one {@link AppiumDriverFactory} builds from {@link HttpClientSettings}. Every trial forks a fresh JVM,
+ * so the JDK pool properties installed for “tuned” do not leak into “selenium”.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandRoundTripBenchmark {
+
+    @Param({"selenium", "tuned"})
+    public String client;
+
+    private FakeAppiumServer fake;
+    private AndroidDriver driver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fake = FakeAppiumServer.start(Duration.ZERO, Duration.ZERO);
+        if (client.equals("tuned")) {
+            HttpClientSettings.installPoolProperties();
+            driver = new AndroidDriver(HttpClientSettings.fromEnvironment().toClientConfig(fake.url()),
+                    new UiAutomator2Options());
+        } else {
+            driver = new AndroidDriver(fake.url(), new UiAutomator2Options());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.quit();
+        fake.stop();
+    }
+
+    @Benchmark
+    public String currentActivity() {
+        return driver.currentActivity();
+    }
+
+    @Benchmark
+    public WebElement findElement() {
+        return driver.findElement(AppiumBy.id("android:id/list"));
+    }
+}
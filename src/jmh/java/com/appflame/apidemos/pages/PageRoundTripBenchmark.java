@@ -0,0 +1,151 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeAppiumServer;
+import com.appflame.apidemos.config.FakeList;
+import com.appflame.apidemos.config.FakeSession;
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of page-object operations against the in-process {@link FakeAppiumServer}, with a fixed
+ * per-request latency standing in for the device round trip. The “roundTrips” and “operations” counters
+ * are totals per iteration; their ratio is the number of requests each operation makes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PageRoundTripBenchmark {
+
+    @Param({"0", "5"})
+    public int latencyMillis;
+
+    @Param({"10"})
+    public int listSize;
+
+    @Param({"PAGE_SOURCE", "PER_ROW"})
+    public CustomLoaderPage.Harvest harvest;
+
+    private FakeSession session;
+    private FakeAppiumServer fake;
+    private AndroidDriver driver;
+    private NavigationMenuPage menu;
+    private NavigationMenuPage deepLinkMenu;
+    private PreferencesFromCodePage preferences;
+    private CustomLoaderPage loader;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long roundTrips;
+        public long operations;
+    }
+
+    /**
+     * Shows a preferences screen instead of the generated list.
+     */
+    @State(Scope.Benchmark)
+    public static class PreferencesScreen {
+        @Setup(Level.Trial)
+        public void show(PageRoundTripBenchmark benchmark) {
+            ApiDemosScreens.preferencesFromCode(benchmark.fake, true, true, true, true);
+        }
+    }
+
+    /**
+     * Shows a preferences screen with everything unchecked before every invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class UncheckedPreferencesScreen {
+        @Setup(Level.Invocation)
+        public void show(PageRoundTripBenchmark benchmark) {
+            ApiDemosScreens.preferencesFromCode(benchmark.fake, false, false, false, false);
+            UiSnapshot.invalidate(benchmark.driver);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        session = FakeSession.start(Duration.ofMillis(latencyMillis), Duration.ZERO);
+        fake = session.fake();
+        driver = session.driver();
+        FakeList.show(fake, listSize);
+        menu = new NavigationMenuPage(driver).withNavigation(NavigationRouter.Mode.MENU);
+        deepLinkMenu = new NavigationMenuPage(driver).withNavigation(NavigationRouter.Mode.DEEP_LINK);
+        preferences = new PreferencesFromCodePage(driver);
+        loader = new CustomLoaderPage(driver).withHarvest(harvest);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public PreferencesFromCodePage navigateToPreferencesFromCode(RoundTrips counter) {
+        long before = fake.requestCount();
+        var page = menu.goToPreferencesFromCode();
+        counter.roundTrips += fake.requestCount() - before;
+        counter.operations++;
+        return page;
+    }
+
+    @Benchmark
+    public PreferencesFromCodePage deepLinkToPreferencesFromCode(RoundTrips counter) {
+        long before = fake.requestCount();
+        var page = deepLinkMenu.goToPreferencesFromCode();
+        counter.roundTrips += fake.requestCount() - before;
+        counter.operations++;
+        return page;
+    }
+
+    @Benchmark
+    public boolean readCheckboxStates(RoundTrips counter, PreferencesScreen screen) {
+        UiSnapshot.invalidate(driver); // as after an action, so every read fetches the screen
+        long before = fake.requestCount();
+        boolean enabled = preferences.areElementsEnabled();
+        counter.roundTrips += fake.requestCount() - before;
+        counter.operations++;
+        return enabled;
+    }
+
+    @Benchmark
+    public PreferencesFromCodePage.PreferenceStates enableAllPreferences(RoundTrips counter,
+                                                                         UncheckedPreferencesScreen screen) {
+        long before = fake.requestCount();
+        preferences.enableAll();
+        var states = preferences.readStates();
+        counter.roundTrips += fake.requestCount() - before;
+        counter.operations++;
+        return states;
+    }
+
+    @Benchmark
+    public List<String> harvestResultTexts(RoundTrips counter) {
+        long before = fake.requestCount();
+        var texts = loader.getAllResultTexts();
+        counter.roundTrips += fake.requestCount() - before;
+        counter.operations++;
+        return texts;
+    }
+}
@@ -0,0 +1,50 @@
+package com.appflame.apidemos.pages;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks for the string-processing helpers used by page objects. Lives in the pages package
+ * so it can call the package-private helpers directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageTextParsingBenchmark {
+
+    private String counterText;
+    private List<String> resultTexts;
+
+    @Setup
+    public void setUp() {
+        counterText = "The counter value is 1234";
+        resultTexts = IntStream.range(0, 40)
+                .mapToObj(i -> "Android Service Sample " + i)
+                .toList();
+    }
+
+    @Benchmark
+    public int parseMainCounterValue() {
+        return LaunchingPreferencesPage.parseCounterValue(counterText);
+    }
+
+    @Benchmark
+    public boolean filterCheckFortyRows() {
+        return CustomLoaderPage.allContainIgnoreCase(resultTexts, "service");
+    }
+}
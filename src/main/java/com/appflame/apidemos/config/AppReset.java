@@ -0,0 +1,16 @@
+package com.appflame.apidemos.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how the app is reset for a test. On a test class, the reset runs when the class leases its device;
+ * on a test method, it runs before every invocation of the method.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface AppReset {
+    ResetStrategy value();
+}
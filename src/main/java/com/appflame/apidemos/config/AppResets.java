@@ -0,0 +1,78 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Applies {@link ResetStrategy}s and records how long each one takes, so the cheapest strategy that still
+ * isolates a test can be picked from measurements.
+ */
+@Slf4j
+public class AppResets {
+    public static final ResetStrategy DEFAULT_STRATEGY = ResetStrategy.CLEAR_DATA;
+
+    private static final Map<ResetStrategy, ResetStats> STATS = new EnumMap<>(ResetStrategy.class);
+
+    private AppResets() {
+    }
+
+    /**
+     * Cost of one strategy over the run.
+     *
+     * @param count number of resets
+     * @param total time spent in all of them
+     * @param max   the slowest reset
+     */
+    public record ResetStats(int count, Duration total, Duration max) {
+
+        public Duration average() {
+            return total.dividedBy(count);
+        }
+
+        private ResetStats plus(Duration elapsed) {
+            return new ResetStats(count + 1, total.plus(elapsed), elapsed.compareTo(max) > 0 ? elapsed : max);
+        }
+    }
+
+    /**
+     * Resets the app with the given strategy and records the time it took.
+     *
+     * @param driver   the session to reset the app in
+     * @param strategy how to reset
+     * @return the time the reset took
+     */
+    public static Duration reset(AndroidDriver driver, ResetStrategy strategy) {
+        long start = System.nanoTime();
+        strategy.reset(driver);
+        UiSnapshot.invalidate(driver);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        synchronized (STATS) {
+            STATS.merge(strategy, new ResetStats(1, elapsed, elapsed), (stats, one) -> stats.plus(elapsed));
+        }
+        log.info("App reset with {} took {} ms", strategy, elapsed.toMillis());
+        return elapsed;
+    }
+
+    /**
+     * Returns the recorded cost of every strategy used so far.
+     */
+    public static Map<ResetStrategy, ResetStats> statistics() {
+        synchronized (STATS) {
+            return STATS.isEmpty() ? Map.of() : new EnumMap<>(STATS);
+        }
+    }
+
+    /**
+     * Logs the cost of every strategy used so far, one line per strategy.
+     */
+    public static void logSummary() {
+        statistics().forEach((strategy, stats) -> log.info("{}: {} resets, avg {} ms, max {} ms, total {} ms",
+                strategy, stats.count(), stats.average().toMillis(), stats.max().toMillis(), stats.total().toMillis()));
+    }
+}
@@ -5,116 +5,226 @@ import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
 import io.appium.java_client.service.local.flags.GeneralServerFlag;
+import com.appflame.apidemos.config.StartupReport.Stage;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
- * A singleton‐style factory for AndroidDriver, with programmatic Appium server startup.
+ * A factory for per-device AndroidDriver sessions, with programmatic Appium server startup.
+ * Sessions are handed out to tests through the {@link DriverPool}. Commands go over a keep-alive connection
+ * pool tuned by the APPIUM_HTTP_* env vars (see {@link HttpClientSettings}).
  */
 @Slf4j
 public class AppiumDriverFactory {
     public static final int DEFAULT_TIMEOUT = 20; // in seconds
     public static final Duration AVD_LAUNCH_TIMEOUT = Duration.ofSeconds(120);
     public static final String EXTERNAL_APPIUM_ENV = "EXTERNAL_APPIUM";
+    public static final String FAKE_APPIUM_ENV = "FAKE_APPIUM";
+    public static final String FAKE_APPIUM_LATENCY_ENV = "FAKE_APPIUM_LATENCY_MS";
+    public static final String FAKE_APPIUM_JITTER_ENV = "FAKE_APPIUM_JITTER_MS";
+    public static final String FRAME_STREAM_ENV = "FRAME_STREAM";
     public static final String AVD_NAME_ENV = "AVD_NAME";
     public static final String AVD_DEFAULT_NAME = "Pixel_9";
-    public static final String APPIUM_DEFAULT_SERVER_URL = "http://127.0.0.1:4723/wd/hub";
+    public static final String APPIUM_SERVER_URL_FORMAT = "http://127.0.0.1:%d/wd/hub";
     public static final String PLATFORM_NAME = "Android";
     public static final String AUTOMATION_NAME = "UiAutomator2";
+    public static final String APP_PACKAGE = "io.appium.android.apis";
     public static final File APP_PATH = new File(System.getProperty("user.dir") + "/app/ApiDemos.apk");
-    private static AndroidDriver driver;
-    private static AppiumDriverLocalService service;
+
+    private static final ExecutorService STARTUP_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "appium-startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        HttpClientSettings.installPoolProperties(); // read once by the JDK, before the first client is built
+    }
 
     /**
-     * Create (or return existing) AndroidDriver. If driver==null:
-     * 1) Start Appium server programmatically (unless EXTERNAL_APPIUM env var is set).
-     * 2) Build UiAutomator2Options (including AVD).
-     * 3) Launch driver.
+     * Returns whether the FRAME_STREAM env var asks for the UiAutomator2 MJPEG screen stream, which
+     * {@link com.appflame.apidemos.utils.FrameStreamTracker} reads. Without it, sessions neither start the stream
+     * server nor forward its port.
      */
-    public static AndroidDriver createDriver() {
-        if (driver != null) {
-            return driver;
-        }
+    public static boolean isFrameStreamEnabled() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(FRAME_STREAM_ENV, "false"));
+    }
 
-        if (!Boolean.parseBoolean(System.getenv().getOrDefault(EXTERNAL_APPIUM_ENV, "false"))) {
-            service = startAppiumServer();
-        } else {
-            log.info("EXTERNAL_APPIUM=true, skipping programmatic server startup.");
-        }
+    /**
+     * Returns whether the EXTERNAL_APPIUM env var asks to use already running Appium servers.
+     */
+    public static boolean isExternalAppium() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(EXTERNAL_APPIUM_ENV, "false"));
+    }
 
-        UiAutomator2Options options = buildOptions();
+    /**
+     * Returns whether the FAKE_APPIUM env var asks to run against an in-process {@link FakeAppiumServer}
+     * instead of a real server and emulator.
+     */
+    public static boolean isFakeAppium() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(FAKE_APPIUM_ENV, "false"));
+    }
+
+    /**
+     * Starts a driver session on the given device. Startup runs as a graph of asynchronous stages:
+     * the Appium server boot, APK validation and the emulator readiness probe run concurrently, and session
+     * creation starts as soon as the server and the options built from the other two are ready. Every stage
+     * is timed, and the breakdown is logged and returned with the session.
+     * <p>
+     * With FAKE_APPIUM=true, the server is a {@link FakeAppiumServer} with the latency and jitter given by
+     * FAKE_APPIUM_LATENCY_MS and FAKE_APPIUM_JITTER_MS, and the APK and emulator stages are skipped.
+     *
+     * @param device the device to run on
+     * @return the session, its Appium server and its StartupReport
+     */
+    public static AppiumSession startSession(Device device) {
+        long start = System.nanoTime();
+        Map<Stage, Duration> timings = new ConcurrentHashMap<>();
+
+        boolean fake = isFakeAppium();
+
+        CompletableFuture<AppiumServer> server = CompletableFuture.supplyAsync(
+                timed(Stage.SERVER_BOOT, timings, () -> startServer(device, fake)), STARTUP_EXECUTOR);
+        CompletableFuture<String> apk = fake
+                ? CompletableFuture.completedFuture("")
+                : CompletableFuture.supplyAsync(
+                timed(Stage.APK_VALIDATION, timings, AppiumDriverFactory::validateApk), STARTUP_EXECUTOR);
+        CompletableFuture<Optional<String>> emulator = fake
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : CompletableFuture.supplyAsync(
+                timed(Stage.EMULATOR_PROBE, timings, () -> EmulatorProbe.findBootedEmulator(device.avdName())),
+                STARTUP_EXECUTOR);
+        CompletableFuture<AndroidDriver> session = apk
+                .thenCombine(emulator, (sha256, serial) -> buildOptions(device, serial))
+                .thenCombine(server, (options, appiumServer) -> timed(Stage.SESSION_CREATION, timings,
+                        () -> createDriver(device, appiumServer.url(), options)).get());
 
-        java.net.URL serverUrl;
         try {
-            if (service != null && service.isRunning()) {
-                serverUrl = service.getUrl();
-                log.info("Using programmatic Appium server at: {}", serverUrl);
-            } else {
-                serverUrl = new java.net.URL(APPIUM_DEFAULT_SERVER_URL);
-                log.info("Using default Appium server URL: {}", serverUrl);
+            AndroidDriver driver = session.join();
+            var stages = new EnumMap<Stage, Duration>(timings);
+            var report = new StartupReport(device.avdName(), stages, Duration.ofNanos(System.nanoTime() - start),
+                    apk.join());
+            log.info("{}", report);
+            return new AppiumSession(driver, server.join(), report);
+        } catch (CompletionException e) {
+            server.thenAccept(AppiumServer::stop);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static AppiumServer startServer(Device device, boolean fake) {
+        if (fake) {
+            return FakeAppiumServer.start(Duration.ofMillis(envMillis(FAKE_APPIUM_LATENCY_ENV)),
+                    Duration.ofMillis(envMillis(FAKE_APPIUM_JITTER_ENV))).asAppiumServer();
+        }
+        if (isExternalAppium()) {
+            try {
+                return AppiumServer.external(new URL(String.format(APPIUM_SERVER_URL_FORMAT, device.serverPort())));
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
             }
+        }
+        return AppiumServer.of(startAppiumServer(device));
+    }
+
+    private static long envMillis(String name) {
+        return Long.parseLong(System.getenv().getOrDefault(name, "0"));
+    }
 
-            driver = new AndroidDriver(serverUrl, options);
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(DEFAULT_TIMEOUT));
+    private static AndroidDriver createDriver(Device device, URL serverUrl, UiAutomator2Options options) {
+        var http = HttpClientSettings.fromEnvironment();
+        log.info("Creating session on {} at: {} ({})", device.avdName(), serverUrl, http);
+        try {
+            AndroidDriver driver = new AndroidDriver(new TimedCommandExecutor(http.toClientConfig(serverUrl)), options);
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO); // page objects wait through AdaptiveWait
+            return driver;
         } catch (Exception e) {
-            log.error("Failed to initialize the Appium driver: {}", e.getMessage(), e);
+            log.error("Failed to initialize the Appium driver on {}: {}", device.avdName(), e.getMessage(), e);
             throw new RuntimeException("Failed to initialize Appium driver", e);
         }
-
-        return driver;
     }
 
     /**
-     * Quit the driver and stop the programmatic Appium server (if one was started).
+     * Checks that the APK exists and hashes it.
+     *
+     * @return the APK's SHA-256, in hex
      */
-    public static void stopServer() {
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                log.warn("Error while quitting driver: {}", e.getMessage());
-            } finally {
-                driver = null;
-            }
-            log.info("AndroidDriver has been quit.");
+    private static String validateApk() {
+        if (!APP_PATH.isFile()) {
+            throw new IllegalStateException("Could not find ApiDemos.apk at: " + APP_PATH.getAbsolutePath());
         }
-        if (service != null && service.isRunning()) {
-            service.stop();
-            log.info("Programmatic Appium server stopped.");
+
+        try (var in = new DigestInputStream(Files.newInputStream(APP_PATH.toPath()),
+                MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not read ApiDemos.apk at: " + APP_PATH.getAbsolutePath(), e);
         }
     }
 
     /**
-     * Builds UiAutomator2Options instance.
+     * Builds UiAutomator2Options instance. A booted emulator found by the probe is attached to by serial,
+     * otherwise Appium looks up or launches the AVD itself. The MJPEG screen stream is only requested with
+     * FRAME_STREAM=true.
      */
-    private static UiAutomator2Options buildOptions() {
-        var avdName = Optional.ofNullable(System.getenv(AVD_NAME_ENV))
-                .filter(name -> !name.isBlank())
-                .orElse(AVD_DEFAULT_NAME);
-
-        if (!APP_PATH.exists()) {
-            throw new IllegalStateException("Could not find ApiDemos.apk at: " + APP_PATH.getAbsolutePath());
-        }
-
-        return new UiAutomator2Options()
+    private static UiAutomator2Options buildOptions(Device device, Optional<String> bootedSerial) {
+        var options = new UiAutomator2Options()
                 .setPlatformName(PLATFORM_NAME)
                 .setAutomationName(AUTOMATION_NAME)
-                .setAvd(avdName)
-                .setAvdLaunchTimeout(AVD_LAUNCH_TIMEOUT)
                 .setApp(APP_PATH.getAbsolutePath())
                 .setNoReset(false)
-                .setSkipDeviceInitialization(true);
+                .setSkipDeviceInitialization(true)
+                .setSystemPort(device.systemPort());
+        if (isFrameStreamEnabled()) {
+            options.setMjpegServerPort(device.mjpegServerPort());
+        }
+
+        return bootedSerial
+                .map(options::setUdid)
+                .orElseGet(() -> options
+                        .setAvd(device.avdName())
+                        .setAvdLaunchTimeout(AVD_LAUNCH_TIMEOUT));
+    }
+
+    private static <T> Supplier<T> timed(Stage stage, Map<Stage, Duration> timings, Supplier<T> task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                timings.put(stage, Duration.ofNanos(System.nanoTime() - start));
+            }
+        };
     }
 
     /**
-     * Starts a local Appium server (on any free port) with session override and INFO log level.
-     * You can skip calling this if you prefer to run `appium` manually beforehand.
+     * Starts a local Appium server on any free port with session override and INFO log level, so it never
+     * clashes with an Appium server already running on the device's server port (which only
+     * EXTERNAL_APPIUM relies on). You can skip calling this if you prefer to run `appium` manually beforehand.
      */
-    private static AppiumDriverLocalService startAppiumServer() {
-        log.info("Starting Appium server programmatically...");
+    static AppiumDriverLocalService startAppiumServer(Device device) {
+        log.info("Starting Appium server programmatically for {}...", device.avdName());
         AppiumDriverLocalService server = new AppiumServiceBuilder()
                 .usingAnyFreePort()
                 .withArgument(GeneralServerFlag.SESSION_OVERRIDE)
@@ -0,0 +1,59 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URL;
+
+/**
+ * An Appium endpoint a session is created on: a server started by the factory, an external server, or the
+ * in-process {@link FakeAppiumServer}.
+ */
+public interface AppiumServer {
+
+    /**
+     * Returns the URL sessions are created at.
+     */
+    URL url();
+
+    /**
+     * Stops the server if it was started by this process; does nothing otherwise.
+     */
+    void stop();
+
+    /**
+     * Wraps a server started through AppiumServiceBuilder.
+     */
+    static AppiumServer of(AppiumDriverLocalService service) {
+        return new Local(service);
+    }
+
+    /**
+     * Refers to a server this process does not manage.
+     */
+    static AppiumServer external(URL url) {
+        return new External(url);
+    }
+
+    @Slf4j
+    record Local(AppiumDriverLocalService service) implements AppiumServer {
+        @Override
+        public URL url() {
+            return service.getUrl();
+        }
+
+        @Override
+        public void stop() {
+            if (service.isRunning()) {
+                service.stop();
+                log.info("Appium server at {} stopped.", service.getUrl());
+            }
+        }
+    }
+
+    record External(URL url) implements AppiumServer {
+        @Override
+        public void stop() {
+        }
+    }
+}
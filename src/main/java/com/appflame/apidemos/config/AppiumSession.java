@@ -0,0 +1,13 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * A started driver session together with the Appium server it runs on and how long it took to start.
+ *
+ * @param driver        the AndroidDriver
+ * @param server        the Appium server the session runs on
+ * @param startupReport the timing breakdown of the startup
+ */
+public record AppiumSession(AndroidDriver driver, AppiumServer server, StartupReport startupReport) {
+}
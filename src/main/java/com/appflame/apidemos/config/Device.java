@@ -0,0 +1,28 @@
+package com.appflame.apidemos.config;
+
+/**
+ * One device slot of the {@link DriverPool}: the AVD to run on and the ports reserved for it, so that
+ * several sessions can run side by side without clashing.
+ *
+ * @param avdName         name of the emulator to launch
+ * @param serverPort      port of the external Appium server driving this device (EXTERNAL_APPIUM); servers
+ *                        started by {@link AppiumDriverFactory} pick any free port
+ * @param systemPort      host port forwarded to the UiAutomator2 server on the device
+ * @param mjpegServerPort host port forwarded to the UiAutomator2 MJPEG screen stream, when FRAME_STREAM asks for it
+ */
+public record Device(String avdName, int serverPort, int systemPort, int mjpegServerPort) {
+    public static final int BASE_SERVER_PORT = 4723;
+    public static final int BASE_SYSTEM_PORT = 8200;
+    public static final int BASE_MJPEG_SERVER_PORT = 7810;
+
+    /**
+     * Creates the device for the given pool slot, offsetting every base port by the slot index.
+     *
+     * @param slot    0-based index of the device in the pool
+     * @param avdName name of the emulator to launch
+     * @return the Device
+     */
+    public static Device forSlot(int slot, String avdName) {
+        return new Device(avdName, BASE_SERVER_PORT + slot, BASE_SYSTEM_PORT + slot, BASE_MJPEG_SERVER_PORT + slot);
+    }
+}
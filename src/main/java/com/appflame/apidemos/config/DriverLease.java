@@ -0,0 +1,51 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.android.AndroidDriver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exclusive use of one pooled device and its driver. Closing the lease returns the device to the
+ * {@link DriverPool} with its session still open; closing it more than once has no effect.
+ */
+public class DriverLease implements AutoCloseable {
+    private final Device device;
+    private final AppiumSession session;
+    private final boolean warm;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    DriverLease(Device device, AppiumSession session, boolean warm) {
+        this.device = device;
+        this.session = session;
+        this.warm = warm;
+    }
+
+    public Device device() {
+        return device;
+    }
+
+    public AndroidDriver driver() {
+        return session.driver();
+    }
+
+    /**
+     * Returns how long the lease's session took to start; for a warm lease, that was paid by an earlier lease.
+     */
+    public StartupReport startupReport() {
+        return session.startupReport();
+    }
+
+    /**
+     * Returns whether the lease reuses a session started for an earlier lease.
+     */
+    public boolean warm() {
+        return warm;
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            DriverPool.release(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.appflame.apidemos.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.appflame.apidemos.config.AppiumDriverFactory.AVD_DEFAULT_NAME;
+import static com.appflame.apidemos.config.AppiumDriverFactory.AVD_NAME_ENV;
+
+/**
+ * Pool of the devices available to the suite. Each worker thread acquires a {@link DriverLease} for the
+ * duration of a test class, getting a device of its own with a dedicated Appium server, systemPort and
+ * MJPEG port, so test classes can run in parallel on as many emulators as are configured.
+ * <p>
+ * Servers and sessions are suite-scoped: the first lease of a device starts them, later leases reuse the
+ * warm session after a fast app-state reset (see {@link ResetStrategy}), and {@link #shutdown()}
+ * tears everything down at the end of the suite.
+ * <p>
+ * Devices are read from the AVD_NAMES environment variable (comma-separated), falling back to the single
+ * AVD_NAME device.
+ */
+@Slf4j
+public class DriverPool {
+    public static final String AVD_NAMES_ENV = "AVD_NAMES";
+    public static final Duration ACQUIRE_TIMEOUT = Duration.ofMinutes(15);
+
+    private static final List<Device> DEVICES = loadDevices();
+    private static final BlockingQueue<Device> IDLE = new LinkedBlockingQueue<>(DEVICES);
+    private static final Map<Device, AppiumSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private DriverPool() {
+    }
+
+    /**
+     * Returns every device of the pool, leased or not.
+     */
+    public static List<Device> devices() {
+        return DEVICES;
+    }
+
+    /**
+     * Returns the startup breakdown of every session currently open in the pool.
+     */
+    public static List<StartupReport> startupReports() {
+        return SESSIONS.values().stream()
+                .map(AppiumSession::startupReport)
+                .toList();
+    }
+
+    /**
+     * Same as {@link #acquire(ResetStrategy)} with {@link AppResets#DEFAULT_STRATEGY}.
+     */
+    public static DriverLease acquire() {
+        return acquire(AppResets.DEFAULT_STRATEGY);
+    }
+
+    /**
+     * Waits for an idle device and returns its warm session after resetting the app, or starts a new
+     * session if the device has none yet or its session no longer responds.
+     *
+     * @param resetStrategy how to reset the app in a warm session
+     * @return the lease; close it to return the device to the pool
+     * @throws IllegalStateException if no device became idle within {@link #ACQUIRE_TIMEOUT}
+     */
+    public static DriverLease acquire(ResetStrategy resetStrategy) {
+        Device device;
+        try {
+            device = IDLE.poll(ACQUIRE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a device", e);
+        }
+        if (device == null) {
+            throw new IllegalStateException("No device became idle within " + ACQUIRE_TIMEOUT);
+        }
+
+        log.info("Leasing {} to {}", device.avdName(), Thread.currentThread().getName());
+        try {
+            AppiumSession session = SESSIONS.get(device);
+            if (session != null) {
+                try {
+                    AppResets.reset(session.driver(), resetStrategy);
+                    return new DriverLease(device, session, true);
+                } catch (WebDriverException e) {
+                    log.warn("Warm session on {} is unusable, starting a new one: {}", device.avdName(), e.getMessage());
+                    close(device, SESSIONS.remove(device));
+                }
+            }
+
+            session = AppiumDriverFactory.startSession(device);
+            SESSIONS.put(device, session);
+            return new DriverLease(device, session, false);
+        } catch (RuntimeException e) {
+            IDLE.add(device);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the lease's device to the pool, keeping its session warm for the next lease.
+     */
+    static void release(DriverLease lease) {
+        log.info("Returning {} to the pool", lease.device().avdName());
+        IDLE.add(lease.device());
+    }
+
+    /**
+     * Quits every session and stops every Appium server started by the pool. Call once at the end of the suite.
+     */
+    public static void shutdown() {
+        SESSIONS.forEach(DriverPool::close);
+        SESSIONS.clear();
+    }
+
+    private static void close(Device device, AppiumSession session) {
+        try {
+            session.driver().quit();
+            log.info("AndroidDriver on {} has been quit.", device.avdName());
+        } catch (Exception e) {
+            log.warn("Error while quitting driver on {}: {}", device.avdName(), e.getMessage());
+        } finally {
+            session.server().stop();
+        }
+    }
+
+    private static List<Device> loadDevices() {
+        List<String> avdNames = Optional.ofNullable(System.getenv(AVD_NAMES_ENV))
+                .map(names -> Arrays.stream(names.split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .toList())
+                .filter(names -> !names.isEmpty())
+                .orElseGet(() -> List.of(Optional.ofNullable(System.getenv(AVD_NAME_ENV))
+                        .filter(name -> !name.isBlank())
+                        .orElse(AVD_DEFAULT_NAME)));
+
+        List<Device> devices = IntStream.range(0, avdNames.size())
+                .mapToObj(slot -> Device.forSlot(slot, avdNames.get(slot)))
+                .toList();
+        log.info("Driver pool devices: {}", devices);
+        return devices;
+    }
+}
@@ -0,0 +1,73 @@
+package com.appflame.apidemos.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checks through adb whether an emulator for a given AVD is already running and fully booted, so a session
+ * can attach to it by serial instead of having Appium look up (or launch) the AVD.
+ */
+@Slf4j
+final class EmulatorProbe {
+    private static final long ADB_TIMEOUT_SECONDS = 10;
+    private static final String ADB = Stream.of("ANDROID_HOME", "ANDROID_SDK_ROOT")
+            .map(System::getenv)
+            .filter(sdk -> sdk != null && !sdk.isBlank())
+            .map(sdk -> Path.of(sdk, "platform-tools", "adb"))
+            .filter(Files::isExecutable)
+            .findFirst()
+            .map(Path::toString)
+            .orElse("adb");
+
+    private EmulatorProbe() {
+    }
+
+    /**
+     * Finds a booted emulator running the given AVD.
+     *
+     * @param avdName the AVD to look for
+     * @return the emulator's adb serial (e.g. emulator-5554), or empty if none is running, booted or adb is unavailable
+     */
+    static Optional<String> findBootedEmulator(String avdName) {
+        try {
+            for (String line : adb("devices")) {
+                String[] columns = line.split("\\s+");
+                if (columns.length < 2 || !columns[0].startsWith("emulator-") || !columns[1].equals("device")) {
+                    continue;
+                }
+
+                String serial = columns[0];
+                List<String> name = adb("-s", serial, "emu", "avd", "name");
+                if (!name.isEmpty() && name.get(0).trim().equals(avdName)
+                        && adb("-s", serial, "shell", "getprop", "sys.boot_completed").contains("1")) {
+                    return Optional.of(serial);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("adb probe failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> adb(String... args) throws IOException, InterruptedException {
+        var command = Stream.concat(Stream.of(ADB), Stream.of(args)).toList();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        if (!process.waitFor(ADB_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Timed out: " + String.join(" ", command));
+        }
+        return new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).lines()
+                .map(String::trim)
+                .toList();
+    }
+}
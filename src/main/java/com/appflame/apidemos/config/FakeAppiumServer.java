@@ -0,0 +1,388 @@
+package com.appflame.apidemos.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.json.Json;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for an Appium UiAutomator2 server, for measuring framework overhead (waits, batching,
+ * round trips) deterministically without an emulator.
+ * <p>
+ * It implements the subset of the W3C/Appium protocol the page objects use: sessions, timeouts, finding
+ * elements and child elements, click/clear/value, text, attributes, displayed/enabled/selected, rect,
+ * screenshots, page source, back, actions, app management and executeScript (“mobile:” commands are
+ * accepted and ignored, except “mobile: startActivity” and “mobile: getCurrentActivity”). Every locator
+ * matches: a single find returns one element, a list find returns {@link #setListSize(int) listSize} elements.
+ * Clicking an element toggles its “checked” attribute and sendKeys sets its text, so simple page flows behave
+ * plausibly.
+ * <p>
+ * The fake knows nothing about ApiDemos screens: the page source is whatever {@link #setPageSource(String)} last
+ * set, an empty hierarchy at first. Tests and benchmarks simulate the app's reactions to commands with
+ * {@link #route(String, String, BiFunction)} and {@link #onScript(String, Function)}.
+ * <p>
+ * Every request is delayed by the configured latency plus a uniformly distributed jitter, drawn from a
+ * seeded random generator so runs are repeatable.
+ */
+@Slf4j
+public class FakeAppiumServer {
+    public static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    public static final int SCREEN_WIDTH = 1080;
+    public static final int SCREEN_HEIGHT = 2424;
+    public static final long DEFAULT_SEED = 42L;
+    public static final String SESSION_PATH = "/session/[^/]+";
+
+    private static final Pattern URL_PREFIX = Pattern.compile("^/wd/hub");
+    private static final Json JSON = new Json();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final Duration jitter;
+    private final Random random = new Random(DEFAULT_SEED);
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final Map<String, Function<Map<?, ?>, Object>> scripts = new ConcurrentHashMap<>();
+    private final Map<String, FakeElement> elements = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final String screenshot;
+    private volatile int listSize = 5;
+    private volatile String pageSource = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+            + "<hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"" + SCREEN_WIDTH
+            + "\" height=\"" + SCREEN_HEIGHT + "\" />";
+    private volatile String currentActivity = ResetStrategy.ROOT_ACTIVITY;
+
+    static {
+        // Without TCP_NODELAY, the response headers and body go out as separate segments and every request
+        // waits for the client's delayed ACK (~40 ms), which would drown the latency being simulated
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private FakeAppiumServer(Duration latency, Duration jitter) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.screenshot = encodePng(new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB));
+        defineRoutes();
+        onScript("mobile: startActivity", this::startActivity);
+        onScript("mobile: getCurrentActivity", args -> currentActivity);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "fake-appium");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Starts a fake server on a free loopback port.
+     *
+     * @param latency delay added to every request
+     * @param jitter  maximum random deviation from the latency, in both directions
+     * @return the running server
+     */
+    public static FakeAppiumServer start(Duration latency, Duration jitter) {
+        try {
+            var fake = new FakeAppiumServer(latency, jitter);
+            log.info("Fake Appium server started at {} (latency {} ms ± {} ms)", fake.url(), latency.toMillis(),
+                    jitter.toMillis());
+            return fake;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the fake Appium server", e);
+        }
+    }
+
+    /**
+     * Returns the URL to create sessions at.
+     */
+    public URL url() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("Fake Appium server stopped after {} requests", requests.get());
+    }
+
+    /**
+     * Returns the number of requests served so far, i.e. the number of round trips the client made.
+     */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Sets how many elements list finds return.
+     */
+    public void setListSize(int listSize) {
+        this.listSize = listSize;
+    }
+
+    /**
+     * Replaces the hierarchy XML returned by the page source endpoint.
+     */
+    public void setPageSource(String pageSource) {
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Adds a route that takes precedence over the built-in ones and over any route added earlier for the same
+     * method and path.
+     *
+     * @param method  the HTTP method
+     * @param path    a regex matched against the whole request path, without any “/wd/hub” prefix; session
+     *                commands start with {@link #SESSION_PATH}
+     * @param handler maps the path match and the JSON body to the response value
+     */
+    public void route(String method, String path, BiFunction<Matcher, Map<String, Object>, Object> handler) {
+        routes.removeIf(route -> route.method().equals(method) && route.path().pattern().equals(path));
+        routes.add(0, new Route(method, Pattern.compile(path), handler));
+    }
+
+    /**
+     * Handles an executeScript command, such as a “mobile:” command, replacing any earlier handler for it.
+     *
+     * @param script  the script, e.g. “mobile: scrollGesture”
+     * @param handler maps the script's first argument, an empty map if none, to the response value
+     */
+    public void onScript(String script, Function<Map<?, ?>, Object> handler) {
+        scripts.put(script, handler);
+    }
+
+    /**
+     * Returns an AppiumServer view of this fake, for use as a session's server.
+     */
+    public AppiumServer asAppiumServer() {
+        return new AppiumServer() {
+            @Override
+            public URL url() {
+                return FakeAppiumServer.this.url();
+            }
+
+            @Override
+            public void stop() {
+                FakeAppiumServer.this.stop();
+            }
+        };
+    }
+
+    private void defineRoutes() {
+        String session = SESSION_PATH;
+        String element = session + "/element/([^/]+)";
+
+        route("GET", "/status", (m, body) -> Map.of("ready", true, "message", "fake"));
+        route("POST", "/session", (m, body) -> newSession(body));
+        route("DELETE", session, (m, body) -> null);
+        route("POST", session + "/timeouts", (m, body) -> null);
+        route("POST", session + "/element", (m, body) -> find(body, 0));
+        route("POST", session + "/elements", (m, body) -> findAll(body));
+        route("POST", element + "/element", (m, body) -> find(body, 0));
+        route("POST", element + "/elements", (m, body) -> findAll(body));
+        route("GET", element + "/displayed", (m, body) -> true);
+        route("GET", element + "/enabled", (m, body) -> true);
+        route("GET", element + "/selected", (m, body) -> element(m).checked);
+        route("GET", element + "/text", (m, body) -> element(m).text);
+        route("GET", element + "/name", (m, body) -> "android.widget.TextView");
+        route("GET", element + "/attribute/([^/]+)", (m, body) -> attribute(element(m), m.group(2)));
+        route("GET", element + "/rect", (m, body) -> Map.of("x", 0, "y", 0, "width", 200, "height", 100));
+        route("GET", element + "/screenshot", (m, body) -> screenshot);
+        route("POST", element + "/click", (m, body) -> {
+            var clicked = element(m);
+            clicked.checked = !clicked.checked;
+            return null;
+        });
+        route("POST", element + "/clear", (m, body) -> {
+            element(m).text = "";
+            return null;
+        });
+        route("POST", element + "/value", (m, body) -> {
+            element(m).text = String.valueOf(body.getOrDefault("text", ""));
+            return null;
+        });
+        route("GET", session + "/screenshot", (m, body) -> screenshot);
+        route("GET", session + "/source", (m, body) -> pageSource);
+        route("POST", session + "/back", (m, body) -> null);
+        route("POST", session + "/actions", (m, body) -> null);
+        route("DELETE", session + "/actions", (m, body) -> null);
+        route("POST", session + "/execute/sync", (m, body) ->
+                scripts.getOrDefault(String.valueOf(body.get("script")), args -> null).apply(firstArgument(body)));
+        route("POST", session + "/appium/device/activate_app", (m, body) -> {
+            currentActivity = ResetStrategy.ROOT_ACTIVITY;
+            return null;
+        });
+        route("POST", session + "/appium/device/terminate_app", (m, body) -> true);
+        route("POST", session + "/appium/device/app_state", (m, body) -> 4);
+        route("GET", session + "/appium/device/current_activity", (m, body) -> currentActivity);
+        route("GET", session + "/appium/device/current_package", (m, body) -> AppiumDriverFactory.APP_PACKAGE);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            delay();
+
+            String method = exchange.getRequestMethod();
+            String path = URL_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            Map<String, Object> body = requestBody.length == 0
+                    ? Map.of()
+                    : JSON.toType(new String(requestBody, StandardCharsets.UTF_8), Json.MAP_TYPE);
+
+            for (Route route : routes) {
+                Matcher matcher = route.path().matcher(path);
+                if (route.method().equals(method) && matcher.matches()) {
+                    var value = new HashMap<String, Object>();
+                    value.put("value", route.handler().apply(matcher, body));
+                    respond(exchange, 200, value);
+                    return;
+                }
+            }
+
+            log.debug("Fake Appium server has no route for {} {}", method, path);
+            respond(exchange, 404, Map.of("value", Map.of("error", "unknown command",
+                    "message", "Not implemented by the fake server: " + method + " " + path, "stacktrace", "")));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, Map.of("value", Map.of("error", "unknown error",
+                    "message", String.valueOf(e.getMessage()), "stacktrace", "")));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() {
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            long bound = jitter.toMillis();
+            synchronized (random) {
+                millis += random.nextLong(-bound, bound + 1);
+            }
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] bytes = JSON.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private Map<String, Object> newSession(Map<String, Object> body) {
+        var capabilities = new LinkedHashMap<String, Object>();
+        if (body.get("capabilities") instanceof Map<?, ?> requested
+                && requested.get("alwaysMatch") instanceof Map<?, ?> alwaysMatch) {
+            alwaysMatch.forEach((key, value) -> capabilities.put(String.valueOf(key), value));
+        }
+        capabilities.putIfAbsent("platformName", AppiumDriverFactory.PLATFORM_NAME);
+        capabilities.putIfAbsent("appium:automationName", AppiumDriverFactory.AUTOMATION_NAME);
+        return Map.of("sessionId", UUID.randomUUID().toString(), "capabilities", capabilities);
+    }
+
+    private Map<String, String> find(Map<String, Object> body, int index) {
+        String using = String.valueOf(body.get("using"));
+        String value = String.valueOf(body.get("value"));
+        String id = UUID.nameUUIDFromBytes((using + "\n" + value + "\n" + index).getBytes(StandardCharsets.UTF_8))
+                .toString();
+        elements.computeIfAbsent(id, key -> new FakeElement(value + (index == 0 ? "" : " " + index)));
+        return Map.of(ELEMENT_KEY, id);
+    }
+
+    private List<Map<String, String>> findAll(Map<String, Object> body) {
+        var found = new ArrayList<Map<String, String>>();
+        for (int i = 0; i < listSize; i++) {
+            found.add(find(body, i));
+        }
+        return found;
+    }
+
+    private FakeElement element(Matcher matcher) {
+        var element = elements.get(matcher.group(1));
+        if (element == null) {
+            throw new IllegalArgumentException("Unknown element " + matcher.group(1));
+        }
+        return element;
+    }
+
+    private static Object attribute(FakeElement element, String name) {
+        return switch (name) {
+            case "checked", "selected" -> String.valueOf(element.checked);
+            case "enabled", "displayed", "clickable" -> "true";
+            case "text", "content-desc" -> element.text;
+            default -> null;
+        };
+    }
+
+    private static Map<?, ?> firstArgument(Map<String, Object> body) {
+        return body.get("args") instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> map
+                ? map : Map.of();
+    }
+
+    /**
+     * Makes the intent's activity the current one.
+     */
+    private Object startActivity(Map<?, ?> args) {
+        String intent = String.valueOf(args.get("intent"));
+        currentActivity = intent.substring(intent.indexOf('/') + 1);
+        return null;
+    }
+
+    private static String encodePng(BufferedImage image) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private record Route(String method, Pattern path, BiFunction<Matcher, Map<String, Object>, Object> handler) {
+    }
+
+    private static final class FakeElement {
+        private volatile String text;
+        private volatile boolean checked;
+
+        private FakeElement(String text) {
+            this.text = text;
+        }
+    }
+}
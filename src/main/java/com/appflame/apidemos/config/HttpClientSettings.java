@@ -0,0 +1,96 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.AppiumClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.remote.http.ClientConfig;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * HTTP client settings for the driver's command channel, read from the environment.
+ * <p>
+ * Selenium sends commands through the JDK HttpClient, which keeps connections alive and reuses them from a
+ * per-client pool. The pool is configured through the JVM-wide “jdk.httpclient.connectionPoolSize” and
+ * “jdk.httpclient.keepalive.timeout” properties, which the JDK reads once, before the first client is built;
+ * {@link #installPoolProperties()} sets them unless they were given on the command line. Connections are kept
+ * alive for less time than the Appium server's own idle timeout, so a pooled connection is never reused after
+ * the server closed it. The JDK client does not support HTTP/1.1 pipelining: each connection carries one
+ * request at a time, and a driver session makes its commands one after another anyway.
+ *
+ * @param connectTimeout how long to wait for a connection to the server
+ * @param readTimeout    how long to wait for a command's response
+ * @param poolSize       the maximum number of idle connections kept, 0 for no limit
+ * @param keepAlive      how long an idle connection is kept
+ * @param httpVersion    HTTP_1_1, or HTTP_2 to let the client attempt an h2c upgrade on every new connection
+ */
+@Slf4j
+public record HttpClientSettings(Duration connectTimeout, Duration readTimeout, int poolSize, Duration keepAlive,
+                                 String httpVersion) {
+    public static final String CONNECT_TIMEOUT_ENV = "APPIUM_HTTP_CONNECT_TIMEOUT_MS";
+    public static final String READ_TIMEOUT_ENV = "APPIUM_HTTP_READ_TIMEOUT_MS";
+    public static final String POOL_SIZE_ENV = "APPIUM_HTTP_POOL_SIZE";
+    public static final String KEEP_ALIVE_ENV = "APPIUM_HTTP_KEEP_ALIVE_S";
+    public static final String HTTP_VERSION_ENV = "APPIUM_HTTP_VERSION";
+
+    public static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    public static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private static final HttpClientSettings DEFAULTS = new HttpClientSettings(Duration.ofSeconds(10),
+            Duration.ofSeconds(180), 4, Duration.ofSeconds(300), "HTTP_1_1");
+
+    /**
+     * Returns the defaults overridden by the APPIUM_HTTP_* env vars.
+     */
+    public static HttpClientSettings fromEnvironment() {
+        return new HttpClientSettings(
+                env(CONNECT_TIMEOUT_ENV, Duration::ofMillis, DEFAULTS.connectTimeout),
+                env(READ_TIMEOUT_ENV, Duration::ofMillis, DEFAULTS.readTimeout),
+                env(POOL_SIZE_ENV, Math::toIntExact, DEFAULTS.poolSize),
+                env(KEEP_ALIVE_ENV, Duration::ofSeconds, DEFAULTS.keepAlive),
+                System.getenv().getOrDefault(HTTP_VERSION_ENV, DEFAULTS.httpVersion));
+    }
+
+    /**
+     * Sets the JDK HttpClient pool properties from the environment, leaving alone any given on the command line.
+     * Has no effect on clients built before the first call.
+     */
+    public static void installPoolProperties() {
+        var settings = fromEnvironment();
+        setIfAbsent(POOL_SIZE_PROPERTY, String.valueOf(settings.poolSize));
+        setIfAbsent(KEEP_ALIVE_PROPERTY, String.valueOf(settings.keepAlive.toSeconds()));
+    }
+
+    /**
+     * Builds the client configuration for commands sent to the given server.
+     *
+     * @param serverUrl the Appium server's URL
+     * @return an AppiumClientConfig with these timeouts and HTTP version
+     */
+    public AppiumClientConfig toClientConfig(URL serverUrl) {
+        return AppiumClientConfig.fromClientConfig(ClientConfig.defaultConfig()
+                .baseUrl(serverUrl)
+                .connectionTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .version(httpVersion));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, connect timeout %d ms, read timeout %d ms, pool %d, keep-alive %d s",
+                httpVersion, connectTimeout.toMillis(), readTimeout.toMillis(), poolSize, keepAlive.toSeconds());
+    }
+
+    private static <T> T env(String name, Function<Long, T> parse, T defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : parse.apply(Long.parseLong(value.trim()));
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+            log.debug("{}={}", property, value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.appmanagement.ApplicationState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.appflame.apidemos.config.AppiumDriverFactory.APP_PACKAGE;
+import static com.appflame.apidemos.config.AppiumDriverFactory.APP_PATH;
+
+/**
+ * Ways of bringing the app under test back to a clean state, from the most isolating and slowest
+ * to the cheapest. Pick one per test class or method with {@link AppReset}; the cost of each reset
+ * is recorded by {@link AppResets}.
+ */
+@Slf4j
+public enum ResetStrategy {
+    /**
+     * Uninstalls and reinstalls the APK, then launches it.
+     */
+    REINSTALL {
+        @Override
+        void reset(AndroidDriver driver) {
+            driver.terminateApp(APP_PACKAGE);
+            driver.removeApp(APP_PACKAGE);
+            driver.installApp(APP_PATH.getAbsolutePath());
+            driver.activateApp(APP_PACKAGE);
+        }
+    },
+
+    /**
+     * Stops the app, clears its data (pm clear) and launches it again.
+     */
+    CLEAR_DATA {
+        @Override
+        void reset(AndroidDriver driver) {
+            driver.terminateApp(APP_PACKAGE);
+            driver.executeScript("mobile: clearApp", Map.of("appId", APP_PACKAGE));
+            driver.activateApp(APP_PACKAGE);
+        }
+    },
+
+    /**
+     * Stops and relaunches the app, keeping its data.
+     */
+    RESTART {
+        @Override
+        void reset(AndroidDriver driver) {
+            driver.terminateApp(APP_PACKAGE);
+            driver.activateApp(APP_PACKAGE);
+        }
+    },
+
+    /**
+     * Presses Back until the root menu is shown, keeping the process and its data; restarts the app
+     * if it is not in the foreground or the root menu is not reached.
+     * <p>
+     * Every ApiDemos sub-menu is shown by the same {@value #ROOT_ACTIVITY} activity as the root menu, so the
+     * root is recognised by its entries ({@link #ROOT_MENU_ENTRIES}) rather than by the activity name.
+     */
+    NAVIGATE_TO_ROOT {
+        @Override
+        void reset(AndroidDriver driver) {
+            if (driver.queryAppState(APP_PACKAGE) != ApplicationState.RUNNING_IN_FOREGROUND) {
+                driver.activateApp(APP_PACKAGE);
+            }
+
+            for (int presses = 0; presses < MAX_BACK_PRESSES; presses++) {
+                if (isRootMenu(driver)) {
+                    return;
+                }
+                driver.navigate().back();
+            }
+
+            log.warn("Root menu not reached after {} Back presses, restarting the app", MAX_BACK_PRESSES);
+            RESTART.reset(driver);
+        }
+    };
+
+    public static final String ROOT_ACTIVITY = ".ApiDemos";
+    /** Top-level menu entries (content descriptions) that no sub-menu shows together. */
+    public static final List<String> ROOT_MENU_ENTRIES = List.of("App", "Preference");
+    private static final int MAX_BACK_PRESSES = 8;
+
+    abstract void reset(AndroidDriver driver);
+
+    /**
+     * Returns whether the screen shows the root menu, read from one page source.
+     */
+    static boolean isRootMenu(AndroidDriver driver) {
+        UiSnapshot snapshot = UiSnapshot.of(driver.getPageSource());
+        return ROOT_MENU_ENTRIES.stream()
+                .allMatch(entry -> !snapshot.all(UiSnapshot.Key.CONTENT_DESC, entry).isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.utils.CommandLatency;
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.AppiumClientConfig;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+
+import java.util.Set;
+
+/**
+ * AppiumCommandExecutor that records the round trip of every command in {@link CommandLatency}.
+ * “mobile:” scripts are recorded separately per script, e.g. “executeScript(mobile: swipeGesture)”.
+ * <p>
+ * Every command that is not known to be a read drops the session's {@link UiSnapshot}, so a direct driver call
+ * (a script, W3C actions, app management) cannot leave page objects reading a screen that has since changed.
+ */
+class TimedCommandExecutor extends AppiumCommandExecutor {
+    private static final Set<String> READ_COMMANDS = Set.of(
+            DriverCommand.GET_PAGE_SOURCE,
+            DriverCommand.FIND_ELEMENT,
+            DriverCommand.FIND_ELEMENTS,
+            DriverCommand.FIND_CHILD_ELEMENT,
+            DriverCommand.FIND_CHILD_ELEMENTS,
+            DriverCommand.GET_ELEMENT_TEXT,
+            DriverCommand.GET_ELEMENT_TAG_NAME,
+            DriverCommand.GET_ELEMENT_ATTRIBUTE,
+            DriverCommand.GET_ELEMENT_DOM_ATTRIBUTE,
+            DriverCommand.GET_ELEMENT_DOM_PROPERTY,
+            DriverCommand.GET_ELEMENT_RECT,
+            DriverCommand.GET_ELEMENT_LOCATION,
+            DriverCommand.GET_ELEMENT_SIZE,
+            DriverCommand.IS_ELEMENT_DISPLAYED,
+            DriverCommand.IS_ELEMENT_ENABLED,
+            DriverCommand.IS_ELEMENT_SELECTED,
+            DriverCommand.SCREENSHOT,
+            DriverCommand.ELEMENT_SCREENSHOT,
+            DriverCommand.GET_CAPABILITIES,
+            DriverCommand.GET_TIMEOUTS,
+            DriverCommand.GET_CURRENT_WINDOW_SIZE,
+            MobileCommand.GET_SCREEN_ORIENTATION,
+            MobileCommand.GET_CONTEXT_HANDLES,
+            MobileCommand.GET_CURRENT_CONTEXT_HANDLE);
+    private static final Set<String> READ_SCRIPTS = Set.of(
+            "mobile: getCurrentActivity",
+            "mobile: getCurrentPackage",
+            "mobile: queryAppState");
+
+    TimedCommandExecutor(AppiumClientConfig clientConfig) {
+        super(MobileCommand.commandRepository, clientConfig);
+    }
+
+    @Override
+    public Response execute(Command command) throws WebDriverException {
+        long start = System.nanoTime();
+        try {
+            return super.execute(command);
+        } finally {
+            // a failed action may still have changed the screen
+            if (command.getSessionId() != null && !isRead(command)) {
+                UiSnapshot.invalidate(command.getSessionId());
+            }
+            CommandLatency.recordCommand(commandName(command), System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isRead(Command command) {
+        String name = command.getName();
+        if (DriverCommand.EXECUTE_SCRIPT.equals(name)) {
+            return READ_SCRIPTS.contains(command.getParameters().get("script"));
+        }
+        return READ_COMMANDS.contains(name);
+    }
+
+    private static String commandName(Command command) {
+        String name = command.getName();
+        if (DriverCommand.EXECUTE_SCRIPT.equals(name)
+                && command.getParameters().get("script") instanceof String script && script.startsWith("mobile:")) {
+            return name + "(" + script + ")";
+        }
+        return name;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.RemoteWebElement;
 
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,6 +24,19 @@ public class AnimationSeekingPage extends BasePage {
     @AndroidFindBy(id = "io.appium.android.apis:id/seekBar")
     private WebElement seekBar;
 
+    @AndroidFindBy(uiAutomator = "new UiSelector().resourceId(\"io.appium.android.apis:id/container\")" +
+            ".childSelector(new UiSelector().className(\"android.view.View\"))")
+    private WebElement animationView;
+
+    /**
+     * Captures only the view in which the animated circle is drawn, rather than the whole screen.
+     *
+     * @return the animation view’s pixels as a BufferedImage
+     */
+    public BufferedImage takeAnimationScreenshot() throws IOException {
+        return takeElementScreenshot(animationView);
+    }
+
     /**
      * Swipe the SeekBar thumb from left toward right by the given percentage,
      * using Appium’s mobile: swipeGesture API.
@@ -32,7 +47,7 @@ public class AnimationSeekingPage extends BasePage {
         if (percentOfBar < 0) percentOfBar = 0;
         if (percentOfBar > 1) percentOfBar = 1;
 
-        var elementId = ((RemoteWebElement) seekBar).getId();
+        var elementId = ((RemoteWebElement) waitForVisibility(seekBar)).getId();
 
         Map<String, Object> args = new HashMap<>();
         args.put("elementId", elementId);
@@ -40,6 +55,6 @@ public class AnimationSeekingPage extends BasePage {
         args.put("percent", percentOfBar);
 
         log.debug("Executing the script with args {} to set the seek bar to percentage {}", args, percentOfBar);
-        driver.executeScript("mobile: swipeGesture", args);
+        executeMobileCommand("mobile: swipeGesture", args);
     }
 }
@@ -1,28 +1,51 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.utils.AdaptiveWait;
+import com.appflame.apidemos.utils.CommandLatency;
+import com.appflame.apidemos.utils.ImageUtils;
+import com.appflame.apidemos.utils.UiNode;
+import com.appflame.apidemos.utils.UiSnapshot;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.appflame.apidemos.config.AppiumDriverFactory.DEFAULT_TIMEOUT;
 
 /**
  * BasePage provides common WebElement interactions (clicking, typing, waiting, etc.)
  * and holds a reference to the AndroidDriver for all page objects to inherit.
+ * <p>
+ * Implicit waits are disabled, and element proxies do not wait either: all waiting goes through
+ * {@link AdaptiveWait}, so a lookup is only retried where a page explicitly waits for it.
+ * The latency of every interaction is recorded in {@link CommandLatency} as “PageName.method”.
+ * <p>
+ * Read-only checks can be answered from a {@link UiSnapshot} of the screen instead of element round trips.
+ * The snapshot is shared by all pages on the driver and dropped after every click, gesture, enterText,
+ * pressBack and mobile command.
+ * <p>
+ * Element lookups go through a {@link ProfilingSearchContext}, which records their cost per page in
+ * {@link com.appflame.apidemos.utils.LocatorProfile} and resolves XPath locators natively where it can.
  */
 @Slf4j
 public class BasePage {
+    protected static final Duration WAIT_TIMEOUT = Duration.ofSeconds(DEFAULT_TIMEOUT);
+
     protected AndroidDriver driver;
 
     public BasePage(AndroidDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+        var searchContext = new ProfilingSearchContext(driver, getClass().getSimpleName());
+        PageFactory.initElements(new AppiumFieldDecorator(searchContext, Duration.ZERO), this);
     }
 
     /**
@@ -31,7 +54,13 @@ public class BasePage {
      * @param element the WebElement to click
      */
     protected void click(WebElement element) {
-        waitForVisibility(element).click();
+        long start = System.nanoTime();
+        try {
+            waitForVisibility(element).click();
+        } finally {
+            UiSnapshot.invalidate(driver);
+            recordLatency("click", start);
+        }
     }
 
     /**
@@ -42,38 +71,195 @@ public class BasePage {
      * @param text    the String value to send
      */
     protected void enterText(WebElement element, String text) {
-        waitForVisibility(element);
-        element.clear();
-        element.sendKeys(text);
+        long start = System.nanoTime();
+        try {
+            waitForVisibility(element);
+            element.clear();
+            element.sendKeys(text);
+        } finally {
+            UiSnapshot.invalidate(driver);
+            recordLatency("enterText", start);
+        }
     }
 
     /**
      * Simulates pressing the Android "Back" button.
      */
     protected void pressBack() {
-        driver.navigate().back();
+        long start = System.nanoTime();
+        try {
+            driver.navigate().back();
+        } finally {
+            UiSnapshot.invalidate(driver);
+            recordLatency("pressBack", start);
+        }
+    }
+
+    /**
+     * Runs a “mobile:” command that may change the screen, such as “mobile: swipeGesture”.
+     *
+     * @param script the command
+     * @param args   the command's arguments
+     * @return the command's result
+     */
+    protected Object executeMobileCommand(String script, Map<String, Object> args) {
+        long start = System.nanoTime();
+        try {
+            return driver.executeScript(script, args);
+        } finally {
+            UiSnapshot.invalidate(driver);
+            recordLatency("executeMobileCommand", start);
+        }
+    }
+
+    /**
+     * Starts a gesture on this page: taps, pauses and back presses sent in as few requests as possible.
+     *
+     * @return an empty gesture
+     */
+    protected Gesture gesture() {
+        return new Gesture(driver, getClass().getSimpleName());
     }
 
     /**
-     * Returns whether the given element’s “checked” attribute is true.
-     * Useful for verifying the state of checkboxes or switches.
+     * Performs the gesture, then waits until the UI snapshot shows its effect. The first poll fetches the screen
+     * as left by the gesture, so an effect that is already visible costs a single read.
      *
-     * @param element the WebElement representing a checkbox or switch
-     * @return true if the element’s “checked” attribute is “true,” false otherwise
+     * @param gesture the gesture to perform
+     * @param name    what is being waited for
+     * @param effect  the query that accepts the gesture's effect
+     * @return the query's first accepted value
      */
-    protected boolean isChecked(WebElement element) {
-        return Boolean.parseBoolean(element.getAttribute("checked"));
+    protected <T> T perform(Gesture gesture, String name, Function<UiSnapshot, T> effect) {
+        gesture.perform();
+        return waitUntilInSnapshot(name, effect);
+    }
+
+    /**
+     * Captures a screenshot cropped to the given element, after waiting for it to become visible.
+     *
+     * @param element the WebElement to capture
+     * @return the element’s pixels as a BufferedImage
+     */
+    protected BufferedImage takeElementScreenshot(WebElement element) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return ImageUtils.takeElementScreenshotAsImage(waitForVisibility(element));
+        } finally {
+            recordLatency("takeElementScreenshot", start);
+        }
     }
 
     /**
      * Waits until the given WebElement is visible on the screen, then returns it.
-     * If the element does not become visible within TIMEOUT_SECONDS, a TimeoutException is thrown.
+     * If the element does not become visible within WAIT_TIMEOUT, a TimeoutException is thrown.
      *
      * @param element the WebElement to wait for
      * @return the same WebElement once it is visible
      */
     protected WebElement waitForVisibility(WebElement element) {
-        return new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT))
-                .until(ExpectedConditions.visibilityOf(element));
+        long start = System.nanoTime();
+        try {
+            return waitUntil("visibility", () -> element.isDisplayed() ? element : null);
+        } finally {
+            recordLatency("waitForVisibility", start);
+        }
+    }
+
+    /**
+     * Waits until the UI snapshot has a displayed node whose property equals value, then returns the node.
+     *
+     * @param key   the property to match
+     * @param value the value to match
+     * @return the first matching node once it is displayed
+     */
+    protected UiNode waitForVisibility(UiSnapshot.Key key, String value) {
+        long start = System.nanoTime();
+        try {
+            return waitUntilInSnapshot("visibility", snapshot -> {
+                UiNode node = snapshot.first(key, value);
+                return node.displayed() ? node : null;
+            });
+        } finally {
+            recordLatency("waitForVisibility", start);
+        }
+    }
+
+    /**
+     * Waits until the condition returns a value other than null or false, then returns it.
+     * The wait is recorded as “PageName.name”.
+     *
+     * @param name      what is being waited for
+     * @param condition the condition to poll
+     * @return the condition's first accepted value
+     */
+    protected <T> T waitUntil(String name, Supplier<T> condition) {
+        return AdaptiveWait.until(waitName(name), WAIT_TIMEOUT, condition);
+    }
+
+    /**
+     * Evaluates a check that may legitimately be negative, waiting only until its elements can be found.
+     * The wait is recorded as “PageName.name”.
+     *
+     * @param name  what is being checked
+     * @param probe the check to evaluate
+     * @return the check's first answer
+     */
+    protected <T> T evaluate(String name, Supplier<T> probe) {
+        return AdaptiveWait.evaluate(waitName(name), WAIT_TIMEOUT, probe);
+    }
+
+    /**
+     * Returns the snapshot of the screen as of the last action, fetching it if this is the first read since.
+     *
+     * @return the current UiSnapshot
+     */
+    protected UiSnapshot snapshot() {
+        return UiSnapshot.current(driver);
+    }
+
+    /**
+     * Like {@link #waitUntil(String, Supplier)}, for a query on the UI snapshot. The first poll reads the
+     * cached snapshot; every further poll fetches a new one.
+     *
+     * @param name  what is being waited for
+     * @param query the query to poll
+     * @return the query's first accepted value
+     */
+    protected <T> T waitUntilInSnapshot(String name, Function<UiSnapshot, T> query) {
+        return waitUntil(name, refreshingQuery(query));
+    }
+
+    /**
+     * Like {@link #evaluate(String, Supplier)}, for a query on the UI snapshot. A query whose node is missing
+     * fetches a new snapshot before it is retried.
+     *
+     * @param name  what is being checked
+     * @param query the query to evaluate
+     * @return the query's first answer
+     */
+    protected <T> T evaluateInSnapshot(String name, Function<UiSnapshot, T> query) {
+        return evaluate(name, refreshingQuery(query));
+    }
+
+    private <T> Supplier<T> refreshingQuery(Function<UiSnapshot, T> query) {
+        var firstPoll = new AtomicBoolean(true);
+        return () -> {
+            if (!firstPoll.getAndSet(false)) {
+                UiSnapshot.invalidate(driver);
+            }
+            return query.apply(snapshot());
+        };
+    }
+
+    private String waitName(String name) {
+        return getClass().getSimpleName() + "." + name;
+    }
+
+    /**
+     * Records the time since start as one call of the given method of this page.
+     */
+    private void recordLatency(String method, long start) {
+        CommandLatency.recordPageMethod(getClass().getSimpleName() + "." + method, System.nanoTime() - start);
     }
 }
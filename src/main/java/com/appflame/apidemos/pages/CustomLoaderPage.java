@@ -1,26 +1,56 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.utils.PageSourceParser;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.time.Duration;
 import java.util.List;
-
-import static com.appflame.apidemos.config.AppiumDriverFactory.DEFAULT_TIMEOUT;
+import java.util.function.Predicate;
 
 /**
  * Page Object for the “App → Loader → Custom” screen in the ApiDemos app.
+ * <p>
+ * Result rows are harvested from a single page-source fetch by default ({@link Harvest#PAGE_SOURCE});
+ * the last harvest is kept until the next search action. The filtering check covers off-screen rows too,
+ * through a {@link ScrollingList} that starts from the harvested screen and only scrolls while rows match.
  */
 @Slf4j
 public class CustomLoaderPage extends BasePage {
+    private static final String RESULT_LIST_ID = "android:id/list";
+    private static final String RESULT_ROW_CLASS = "android.widget.TextView";
+
+    /**
+     * How result rows are read.
+     */
+    public enum Harvest {
+        /** One page-source fetch, parsed locally: a single round trip for any number of rows. */
+        PAGE_SOURCE,
+        /** One find for the rows plus one getText() per row. */
+        PER_ROW
+    }
+
+    private Harvest harvest = Harvest.PAGE_SOURCE;
+    private List<String> resultSnapshot; // texts from the last harvest, null after a search action
+    private String resultSource; // page source of the last harvest, null if it was not read from one
 
     public CustomLoaderPage(AndroidDriver driver) {
         super(driver);
     }
 
+    /**
+     * Sets how result rows are read.
+     *
+     * @param harvest the harvesting mode
+     * @return this page
+     */
+    public CustomLoaderPage withHarvest(Harvest harvest) {
+        this.harvest = harvest;
+        clearResultSnapshot();
+        return this;
+    }
+
     @AndroidFindBy(accessibility = "Search")
     private WebElement searchIcon;
 
@@ -30,14 +60,15 @@ public class CustomLoaderPage extends BasePage {
     @AndroidFindBy(accessibility = "Clear query")
     private WebElement clearQueryButton;
 
-    @AndroidFindBy(xpath = "//android.widget.ListView[@resource-id='android:id/list']" +
-            "//android.widget.TextView")
+    @AndroidFindBy(xpath = "//android.widget.ListView[@resource-id='" + RESULT_LIST_ID + "']" +
+            "//" + RESULT_ROW_CLASS)
     private List<WebElement> searchResultRows;
 
     /**
      * Taps the search icon to reveal the input field.
      */
     public void openSearch() {
+        clearResultSnapshot();
         click(searchIcon);
     }
 
@@ -47,34 +78,80 @@ public class CustomLoaderPage extends BasePage {
      * @param term the text to enter into the search field
      */
     public void typeSearchText(String term) {
+        clearResultSnapshot();
         enterText(searchInput, term);
     }
 
     /**
-     * Retrieves the visible text of all result rows in the list view.
+     * Retrieves the visible text of all result rows in the list view, waiting until there is at least one.
+     * The harvested screen is where a following {@link #resultRows()} starts.
      *
      * @return a List of Strings, each representing one result row’s text
      */
     public List<String> getAllResultTexts() {
-        new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT))
-                .until(driver -> !searchResultRows.isEmpty());
+        resultSource = null;
+        resultSnapshot = switch (harvest) {
+            case PAGE_SOURCE -> waitUntil("resultRows", () -> {
+                String source = driver.getPageSource();
+                var texts = PageSourceParser.textsUnder(source, RESULT_LIST_ID, RESULT_ROW_CLASS);
+                resultSource = source;
+                return texts.isEmpty() ? null : texts;
+            });
+            case PER_ROW -> {
+                waitUntil("resultRows", () -> !searchResultRows.isEmpty());
+                yield searchResultRows.stream()
+                        .map(WebElement::getText)
+                        .toList();
+            }
+        };
+        return resultSnapshot;
+    }
 
-        return searchResultRows.stream()
-                .map(WebElement::getText)
-                .toList();
+    /**
+     * Returns a lazy traversal of all result rows, scrolling the list as the stream is consumed. It starts
+     * from the screen read by the last {@link #getAllResultTexts()} if no search action happened since,
+     * otherwise from a fresh harvest.
+     *
+     * @return the rows, on screen and off
+     */
+    public ScrollingList resultRows() {
+        if (resultSnapshot == null) {
+            getAllResultTexts();
+        }
+        var rows = new ScrollingList(driver, RESULT_LIST_ID, RESULT_ROW_CLASS, resultSource);
+        clearResultSnapshot(); // the list is about to scroll away from the harvested screen
+        return rows;
     }
 
     /**
-     * Verifies that every result row’s text contains the given search text (case‐insensitive).
+     * Verifies that every result row’s text contains the given search text (case‐insensitive), including rows
+     * that have to be scrolled into view. Scrolling stops at the first row that does not match.
      *
      * @param searchText the substring that each result row’s text should contain
      * @return true if all items contain searchText; false otherwise
      */
     public boolean isResultsFilteredCorrectly(String searchText) {
-        var lower = searchText.toLowerCase();
+        var rows = resultRows();
+        boolean filtered = rows.stream().allMatch(containsIgnoreCase(searchText));
+        log.debug("Filter check for '{}': {} after {} scrolls", searchText, filtered, rows.scrolls());
+        return filtered;
+    }
+
+    /**
+     * Returns whether every text contains searchText, ignoring case.
+     *
+     * @param texts      the texts to check
+     * @param searchText the substring each text should contain
+     * @return true if all texts contain searchText; false otherwise
+     */
+    static boolean allContainIgnoreCase(List<String> texts, String searchText) {
+        return texts.stream()
+                .allMatch(containsIgnoreCase(searchText));
+    }
 
-        return getAllResultTexts().stream()
-                .allMatch(t -> t.toLowerCase().contains(lower));
+    private static Predicate<String> containsIgnoreCase(String searchText) {
+        var lower = searchText.toLowerCase();
+        return t -> t.toLowerCase().contains(lower);
     }
 
     /**
@@ -82,9 +159,15 @@ public class CustomLoaderPage extends BasePage {
      */
     public void tapClearQueryButton() {
         log.debug("Clearing search query");
+        clearResultSnapshot();
         click(clearQueryButton);
     }
 
+    private void clearResultSnapshot() {
+        resultSnapshot = null;
+        resultSource = null;
+    }
+
     /**
      * Returns whether the search input field is currently blank (indicating filters are reset).
      *
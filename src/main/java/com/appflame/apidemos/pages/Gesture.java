@@ -0,0 +1,180 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.utils.CommandLatency;
+import com.appflame.apidemos.utils.UiNode;
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pipeline of taps, pauses and back presses, compiled into as few requests as possible: every run of taps and
+ * pauses becomes a single W3C actions request, and a back press ends the run with one “back” command, since the
+ * back key cannot be sent as a W3C action. Consecutive taps are {@link #withTapInterval(Duration) tapInterval}
+ * apart, so the app has time to handle each one.
+ * <p>
+ * Obtained from {@link BasePage#gesture()}. Nothing is sent until {@link #perform()}, which also drops the UI
+ * snapshot; {@link BasePage#perform(Gesture, String, java.util.function.Function)} then verifies the result with
+ * a single read.
+ */
+@Slf4j
+public class Gesture {
+    public static final Duration DEFAULT_TAP_INTERVAL = Duration.ofMillis(100);
+
+    private final AndroidDriver driver;
+    private final String page;
+    private final List<Step> steps = new ArrayList<>();
+    private Duration tapInterval = DEFAULT_TAP_INTERVAL;
+
+    private sealed interface Step permits Tap, Wait, Back {
+    }
+
+    private record Tap(Point point) implements Step {
+    }
+
+    private record Wait(Duration duration) implements Step {
+    }
+
+    private record Back() implements Step {
+    }
+
+    /**
+     * @param driver the driver to perform with
+     * @param page   the page object's simple class name, which the latency is recorded under
+     */
+    Gesture(AndroidDriver driver, String page) {
+        this.driver = driver;
+        this.page = page;
+    }
+
+    /**
+     * Sets the pause between consecutive taps.
+     *
+     * @param tapInterval the pause, possibly zero
+     * @return this gesture
+     */
+    public Gesture withTapInterval(Duration tapInterval) {
+        this.tapInterval = tapInterval;
+        return this;
+    }
+
+    /**
+     * Taps the given point.
+     *
+     * @param point the point, relative to the viewport
+     * @return this gesture
+     */
+    public Gesture tap(Point point) {
+        steps.add(new Tap(point));
+        return this;
+    }
+
+    /**
+     * Taps the centre of the given element the given number of times. The element's bounds are read once, now.
+     *
+     * @param element the element to tap
+     * @param times   how many times to tap it
+     * @return this gesture
+     */
+    public Gesture tap(WebElement element, int times) {
+        Rectangle rect = element.getRect();
+        var centre = new Point(rect.x + rect.width / 2, rect.y + rect.height / 2);
+        for (int i = 0; i < times; i++) {
+            tap(centre);
+        }
+        return this;
+    }
+
+    /**
+     * Taps the centre of each node in turn. The nodes' bounds must be on screen.
+     *
+     * @param nodes the nodes to tap, in order
+     * @return this gesture
+     */
+    public Gesture tapAll(List<UiNode> nodes) {
+        nodes.forEach(node -> tap(new Point((int) node.bounds().getCenterX(), (int) node.bounds().getCenterY())));
+        return this;
+    }
+
+    /**
+     * Pauses for the given time, on top of any tap interval.
+     *
+     * @param duration how long to pause
+     * @return this gesture
+     */
+    public Gesture pause(Duration duration) {
+        steps.add(new Wait(duration));
+        return this;
+    }
+
+    /**
+     * Presses the Android “Back” button.
+     *
+     * @return this gesture
+     */
+    public Gesture back() {
+        steps.add(new Back());
+        return this;
+    }
+
+    /**
+     * Sends the gesture and drops the UI snapshot.
+     *
+     * @return the number of requests sent
+     */
+    public int perform() {
+        long start = System.nanoTime();
+        int requests = 0;
+        try {
+            var finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+            Sequence run = null;
+            boolean tapped = false;
+            for (Step step : steps) {
+                if (step instanceof Back) {
+                    if (run != null) {
+                        driver.perform(List.of(run));
+                        requests++;
+                        run = null;
+                        tapped = false;
+                    }
+                    driver.navigate().back();
+                    requests++;
+                    continue;
+                }
+                if (run == null) {
+                    run = new Sequence(finger, 0);
+                }
+                if (step instanceof Wait wait) {
+                    run.addAction(new Pause(finger, wait.duration()));
+                } else if (step instanceof Tap tap) {
+                    if (tapped && !tapInterval.isZero()) {
+                        run.addAction(new Pause(finger, tapInterval));
+                    }
+                    run.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(),
+                            tap.point().x, tap.point().y));
+                    run.addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+                    run.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+                    tapped = true;
+                }
+            }
+            if (run != null) {
+                driver.perform(List.of(run));
+                requests++;
+            }
+            log.debug("{}: gesture of {} steps sent in {} requests", page, steps.size(), requests);
+            return requests;
+        } finally {
+            UiSnapshot.invalidate(driver);
+            CommandLatency.recordPageMethod(page + ".gesture", System.nanoTime() - start);
+        }
+    }
+}
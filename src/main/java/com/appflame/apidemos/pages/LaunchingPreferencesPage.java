@@ -1,15 +1,17 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.utils.UiSnapshot;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
 
-import java.util.stream.IntStream;
+import static com.appflame.apidemos.utils.UiSnapshot.Key.RESOURCE_ID;
 
 /**
  * Page Object for the “Preference → Launching preferences” screen in the ApiDemos app.
  */
 public class LaunchingPreferencesPage extends BasePage {
+    private static final String PREF_SCREEN_COUNTER_ID = "io.appium.android.apis:id/mypreference_widget";
 
     public LaunchingPreferencesPage(AndroidDriver driver) {
         super(driver);
@@ -25,7 +27,7 @@ public class LaunchingPreferencesPage extends BasePage {
     @AndroidFindBy(uiAutomator = "new UiSelector().textStartsWith(\"The counter value is \")")
     private WebElement mainCounterValue;
 
-    @AndroidFindBy(id = "io.appium.android.apis:id/mypreference_widget")
+    @AndroidFindBy(id = PREF_SCREEN_COUNTER_ID)
     private WebElement prefScreenCounterValue;
 
     /**
@@ -35,8 +37,7 @@ public class LaunchingPreferencesPage extends BasePage {
      * @return the integer value X parsed from the main counter TextView
      */
     public int getMainCounterValue() {
-        var text = mainCounterValue.getText();
-        return Integer.parseInt(text.replaceAll("[^0-9]", ""));
+        return parseCounterValue(waitForVisibility(mainCounterValue).getText());
     }
 
     /**
@@ -46,7 +47,7 @@ public class LaunchingPreferencesPage extends BasePage {
      * @return the integer value displayed in the preference screen’s counter widget
      */
     public int getPrefScreenCounter() {
-        var text = prefScreenCounterValue.getText();
+        var text = waitForVisibility(prefScreenCounterValue).getText();
         return Integer.parseInt(text);
     }
 
@@ -58,13 +59,30 @@ public class LaunchingPreferencesPage extends BasePage {
     }
 
     /**
-     * Taps the “My preference” button the specified number of times.
+     * Taps the “My preference” button the specified number of times, in a single gesture, and waits until the
+     * preference screen's counter has gone up by that much. The cost does not grow with times.
      *
      * @param times the number of times to tap the “My preference” entry
      */
     public void clickMyPreferenceNTimes(int times) {
-        IntStream.range(0, times)
-                .forEach(i -> click(myPreference));
+        int before = waitUntilInSnapshot("prefScreenCounter", LaunchingPreferencesPage::prefScreenCounter);
+        perform(gesture().tap(waitForVisibility(myPreference), times), "myPreferenceTaps",
+                snapshot -> prefScreenCounter(snapshot) == before + times);
+    }
+
+    private static int prefScreenCounter(UiSnapshot snapshot) {
+        return Integer.parseInt(snapshot.first(RESOURCE_ID, PREF_SCREEN_COUNTER_ID).text());
+    }
+
+    /**
+     * Extracts the integer from a counter label such as “The counter value is 12” by dropping every
+     * non-digit character.
+     *
+     * @param text the counter label text
+     * @return the parsed counter value
+     */
+    static int parseCounterValue(String text) {
+        return Integer.parseInt(text.replaceAll("[^0-9]", ""));
     }
 
     /**
@@ -1,16 +1,33 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.pages.NavigationRouter.Destination;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
 
 /**
  * Page Object for the main navigation menu in the ApiDemos app.
+ * <p>
+ * Every goTo method goes through a {@link NavigationRouter}, which either launches the screen's activity directly
+ * or clicks through the menus as described, whichever has proved faster.
  */
 public class NavigationMenuPage extends BasePage {
+    private final NavigationRouter router;
 
     public NavigationMenuPage(AndroidDriver driver) {
         super(driver);
+        this.router = new NavigationRouter(driver);
+    }
+
+    /**
+     * Sets how the goTo methods choose between launching a screen directly and clicking through the menus.
+     *
+     * @param mode how to choose the path
+     * @return this page
+     */
+    public NavigationMenuPage withNavigation(NavigationRouter.Mode mode) {
+        router.withMode(mode);
+        return this;
     }
 
     @AndroidFindBy(accessibility = "App")
@@ -46,9 +63,11 @@ public class NavigationMenuPage extends BasePage {
      * Clicks the “App” menu, then “Loader” sub‐option, then “Custom” sub‐option.
      */
     public CustomLoaderPage goToAppLoaderCustom() {
-        click(appMenu);
-        click(loaderOption);
-        click(customOption);
+        router.navigate(Destination.APP_LOADER_CUSTOM, () -> {
+            click(appMenu);
+            click(loaderOption);
+            click(customOption);
+        });
         return new CustomLoaderPage(driver);
     }
 
@@ -58,8 +77,10 @@ public class NavigationMenuPage extends BasePage {
      * Clicks the “Preference” menu, then “Preferences from code” sub‐option.
      */
     public PreferencesFromCodePage goToPreferencesFromCode() {
-        click(preferenceMenu);
-        click(preferencesFromCodeOption);
+        router.navigate(Destination.PREFERENCES_FROM_CODE, () -> {
+            click(preferenceMenu);
+            click(preferencesFromCodeOption);
+        });
         return new PreferencesFromCodePage(driver);
     }
 
@@ -69,8 +90,10 @@ public class NavigationMenuPage extends BasePage {
      * Clicks the “Preference” menu, then “Launching preferences” sub‐option.
      */
     public LaunchingPreferencesPage goToLaunchingPreferences() {
-        click(preferenceMenu);
-        click(launchingPreferencesOption);
+        router.navigate(Destination.LAUNCHING_PREFERENCES, () -> {
+            click(preferenceMenu);
+            click(launchingPreferencesOption);
+        });
         return new LaunchingPreferencesPage(driver);
     }
 
@@ -80,8 +103,10 @@ public class NavigationMenuPage extends BasePage {
      * Clicks the “Preference” menu, then “Preference dependencies” sub‐option.
      */
     public PreferenceDependenciesPage goToPreferenceDependencies() {
-        click(preferenceMenu);
-        click(preferenceDependenciesOption);
+        router.navigate(Destination.PREFERENCE_DEPENDENCIES, () -> {
+            click(preferenceMenu);
+            click(preferenceDependenciesOption);
+        });
         return new PreferenceDependenciesPage(driver);
     }
 
@@ -91,8 +116,10 @@ public class NavigationMenuPage extends BasePage {
      * Clicks the “Animation” menu, then “Seeking” sub‐option.
      */
     public AnimationSeekingPage goToAnimationSeeking() {
-        click(animationMenu);
-        click(seekingOption);
+        router.navigate(Destination.ANIMATION_SEEKING, () -> {
+            click(animationMenu);
+            click(seekingOption);
+        });
         return new AnimationSeekingPage(driver);
     }
 }
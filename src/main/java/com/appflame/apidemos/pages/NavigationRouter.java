@@ -0,0 +1,181 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.utils.LatencyHistogram;
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.appflame.apidemos.config.AppiumDriverFactory.APP_PACKAGE;
+
+/**
+ * Navigates to ApiDemos screens either by launching their activity directly (“mobile: startActivity”, one round
+ * trip) or by clicking through the menus, and picks the faster of the two per screen.
+ * <p>
+ * In {@link Mode#AUTO AUTO} mode, each path is measured once per screen, the direct launch first, after which the
+ * path with the lower mean latency is used. A screen whose direct launch fails (e.g. the activity is not exported)
+ * is reached through the menus from then on. The latencies are shared by the whole suite; {@link #logSummary()}
+ * logs them. The NAVIGATION_MODE env var (auto, deep_link or menu) pins the path for every screen.
+ */
+@Slf4j
+public class NavigationRouter {
+    public static final String NAVIGATION_MODE_ENV = "NAVIGATION_MODE";
+
+    private static final Map<Destination, Map<Path, LatencyHistogram>> LATENCY = new EnumMap<>(Destination.class);
+    private static final Set<Destination> NO_DEEP_LINK = ConcurrentHashMap.newKeySet();
+
+    static {
+        for (Destination destination : Destination.values()) {
+            var byPath = new EnumMap<Path, LatencyHistogram>(Path.class);
+            for (Path path : Path.values()) {
+                byPath.put(path, new LatencyHistogram());
+            }
+            LATENCY.put(destination, byPath);
+        }
+    }
+
+    private final AndroidDriver driver;
+    private Mode mode = modeFromEnvironment();
+
+    /**
+     * The screens the router can reach, with their activities.
+     */
+    public enum Destination {
+        APP_LOADER_CUSTOM(".app.LoaderCustom"),
+        PREFERENCES_FROM_CODE(".preference.PreferencesFromCode"),
+        LAUNCHING_PREFERENCES(".preference.LaunchingPreferences"),
+        PREFERENCE_DEPENDENCIES(".preference.PreferenceDependencies"),
+        ANIMATION_SEEKING(".animation.AnimationSeeking");
+
+        private final String activity;
+
+        Destination(String activity) {
+            this.activity = activity;
+        }
+
+        /**
+         * Returns the activity, relative to the app package.
+         */
+        public String activity() {
+            return activity;
+        }
+    }
+
+    /**
+     * The ways of reaching a screen.
+     */
+    public enum Path {
+        DEEP_LINK,
+        MENU
+    }
+
+    /**
+     * How the path is chosen.
+     */
+    public enum Mode {
+        /** The faster path, as measured so far. */
+        AUTO,
+        /** The direct launch, falling back to the menus if it fails. */
+        DEEP_LINK,
+        /** The menus. */
+        MENU
+    }
+
+    /**
+     * @param driver the driver to navigate with
+     */
+    public NavigationRouter(AndroidDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Overrides the mode read from the NAVIGATION_MODE env var.
+     *
+     * @param mode how to choose the path
+     * @return this router
+     */
+    public NavigationRouter withMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Navigates to the destination by the chosen path, starting from the root menu.
+     *
+     * @param destination the screen to reach
+     * @param menuPath    clicks through the menus to the screen
+     * @return the path taken
+     */
+    public Path navigate(Destination destination, Runnable menuPath) {
+        Path path = choose(destination);
+        if (path == Path.DEEP_LINK) {
+            long start = System.nanoTime();
+            try {
+                startActivity(destination);
+                LATENCY.get(destination).get(Path.DEEP_LINK).record(System.nanoTime() - start);
+                return Path.DEEP_LINK;
+            } catch (WebDriverException e) {
+                NO_DEEP_LINK.add(destination);
+                log.warn("Cannot launch {} directly, using the menus from now on: {}", destination.activity(),
+                        e.getMessage());
+            } finally {
+                UiSnapshot.invalidate(driver);
+            }
+        }
+
+        long start = System.nanoTime();
+        menuPath.run();
+        LATENCY.get(destination).get(Path.MENU).record(System.nanoTime() - start);
+        return Path.MENU;
+    }
+
+    /**
+     * Logs the mean latency of each path to each screen reached so far.
+     */
+    public static void logSummary() {
+        LATENCY.forEach((destination, byPath) -> {
+            LatencyHistogram.Snapshot deepLink = byPath.get(Path.DEEP_LINK).snapshot();
+            LatencyHistogram.Snapshot menu = byPath.get(Path.MENU).snapshot();
+            if (deepLink.count() + menu.count() > 0) {
+                log.info("Navigation to {}: deep link {} x {} ms, menu {} x {} ms{}", destination,
+                        deepLink.count(), format(deepLink.meanMs()), menu.count(), format(menu.meanMs()),
+                        NO_DEEP_LINK.contains(destination) ? " (no deep link)" : "");
+            }
+        });
+    }
+
+    private Path choose(Destination destination) {
+        if (mode == Mode.MENU || NO_DEEP_LINK.contains(destination)) {
+            return Path.MENU;
+        }
+        if (mode == Mode.DEEP_LINK) {
+            return Path.DEEP_LINK;
+        }
+        LatencyHistogram.Snapshot deepLink = LATENCY.get(destination).get(Path.DEEP_LINK).snapshot();
+        LatencyHistogram.Snapshot menu = LATENCY.get(destination).get(Path.MENU).snapshot();
+        if (deepLink.count() == 0 || menu.count() == 0) {
+            return deepLink.count() == 0 ? Path.DEEP_LINK : Path.MENU;
+        }
+        return deepLink.meanMs() <= menu.meanMs() ? Path.DEEP_LINK : Path.MENU;
+    }
+
+    private void startActivity(Destination destination) {
+        driver.executeScript("mobile: startActivity", Map.of(
+                "intent", APP_PACKAGE + "/" + destination.activity(),
+                "wait", true));
+    }
+
+    private static Mode modeFromEnvironment() {
+        return Mode.valueOf(System.getenv().getOrDefault(NAVIGATION_MODE_ENV, "auto").toUpperCase(Locale.ROOT));
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
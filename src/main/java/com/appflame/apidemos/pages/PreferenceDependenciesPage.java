@@ -1,25 +1,34 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.utils.UiNode;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
 
+import static com.appflame.apidemos.utils.UiSnapshot.Key.RESOURCE_ID;
+import static com.appflame.apidemos.utils.UiSnapshot.Key.TEXT;
+
 /**
  * Page Object for the “Preference → Preference dependencies” screen in the ApiDemos app.
+ * State checks are read from the UI snapshot.
  */
 public class PreferenceDependenciesPage extends BasePage {
+    private static final String WIFI_CHECKBOX_ID = "android:id/checkbox";
+    private static final String WIFI_SETTINGS_TITLE = "WiFi settings";
+    private static final String WIFI_EDIT_TEXT_ID = "android:id/edit";
 
     public PreferenceDependenciesPage(AndroidDriver driver) {
         super(driver);
     }
 
-    @AndroidFindBy(id = "android:id/checkbox")
+    @AndroidFindBy(id = WIFI_CHECKBOX_ID)
     private WebElement wifiCheckbox;
 
-    @AndroidFindBy(uiAutomator = "new UiSelector().resourceId(\"android:id/title\").text(\"WiFi settings\")")
+    @AndroidFindBy(uiAutomator = "new UiSelector().resourceId(\"android:id/title\")" +
+            ".text(\"" + WIFI_SETTINGS_TITLE + "\")")
     private WebElement wifiSettings;
 
-    @AndroidFindBy(id = "android:id/edit")
+    @AndroidFindBy(id = WIFI_EDIT_TEXT_ID)
     private WebElement wifiEditText;
 
     @AndroidFindBy(id = "android:id/button1")
@@ -27,11 +36,15 @@ public class PreferenceDependenciesPage extends BasePage {
 
     /**
      * Checks whether the “WiFi settings” option is currently clickable (enabled and visible).
+     * Only waits until the option is found, so a negative answer is returned right away.
      *
      * @return true if the WiFi settings text is both enabled and displayed; false otherwise
      */
     public boolean isWifiSettingsClickable() {
-        return wifiSettings.isEnabled() && wifiSettings.isDisplayed();
+        return evaluateInSnapshot("wifiSettingsClickable", snapshot -> {
+            UiNode title = snapshot.first(TEXT, WIFI_SETTINGS_TITLE);
+            return title.enabled() && title.displayed();
+        });
     }
 
     /**
@@ -70,7 +83,7 @@ public class PreferenceDependenciesPage extends BasePage {
      * @return true if the checkbox’s “checked” attribute is true; false otherwise
      */
     public boolean isWifiCheckboxChecked() {
-        return isChecked(wifiCheckbox);
+        return waitForVisibility(RESOURCE_ID, WIFI_CHECKBOX_ID).checked();
     }
 
     /**
@@ -79,6 +92,6 @@ public class PreferenceDependenciesPage extends BasePage {
      * @return the string contained in the EditText
      */
     public String getWifiDialogText() {
-        return wifiEditText.getText();
+        return waitForVisibility(RESOURCE_ID, WIFI_EDIT_TEXT_ID).text();
     }
 }
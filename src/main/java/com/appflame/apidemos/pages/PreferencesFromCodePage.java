@@ -1,54 +1,135 @@
 package com.appflame.apidemos.pages;
 
+import com.appflame.apidemos.utils.UiNode;
+import com.appflame.apidemos.utils.UiSnapshot;
 import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.pagefactory.AndroidFindBy;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.NoSuchElementException;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.IntStream;
 
-import static com.appflame.apidemos.config.AppiumDriverFactory.DEFAULT_TIMEOUT;
+import static com.appflame.apidemos.utils.UiSnapshot.Key.RESOURCE_ID;
 
 /**
  * Page Object for the “Preference → Preferences from code” screen in the ApiDemos app.
+ * <p>
+ * The switch and checkboxes are read together from the UI snapshot and set together by {@link #setStates}:
+ * one read, one batched tap of every preference that differs, and one read to verify.
  */
 public class PreferencesFromCodePage extends BasePage {
-    private static final By CHECKBOXES_LOCATOR =
-            By.xpath("//android.widget.CheckBox[@resource-id=\"android:id/checkbox\"]");
+    private static final String SWITCH_ID = "android:id/switch_widget";
+    private static final String CHECKBOX_ID = "android:id/checkbox";
+    private static final String CHECKBOX_CLASS = "android.widget.CheckBox";
 
     public PreferencesFromCodePage(AndroidDriver driver) {
         super(driver);
     }
 
-    @AndroidFindBy(id = "android:id/switch_widget")
-    private WebElement preferenceSwitch;
+    /**
+     * The checked state of every preference on the screen.
+     *
+     * @param switchOn   whether the switch is on
+     * @param checkboxes whether each checkbox is checked, top to bottom
+     */
+    public record PreferenceStates(boolean switchOn, List<Boolean> checkboxes) {
+        public PreferenceStates {
+            checkboxes = List.copyOf(checkboxes);
+        }
+
+        /**
+         * Returns whether the switch is on and every checkbox is checked.
+         */
+        public boolean allEnabled() {
+            return switchOn && !checkboxes.contains(false);
+        }
+
+        private List<Boolean> asList() {
+            var states = new ArrayList<Boolean>();
+            states.add(switchOn);
+            states.addAll(checkboxes);
+            return states;
+        }
+    }
 
     /**
-     * Enables the preference switch by tapping it if it is not already checked.
+     * Reads the switch and every checkbox from the UI snapshot.
+     *
+     * @return the states as of the last action
      */
-    public void enablePreferenceSwitch() {
-        if (!isChecked(preferenceSwitch)) {
-            click(preferenceSwitch);
+    public PreferenceStates readStates() {
+        return evaluateInSnapshot("preferenceStates", PreferencesFromCodePage::statesOf);
+    }
+
+    /**
+     * Sets the switch and checkboxes to the given states. Every preference that differs is tapped in one
+     * batched gesture, and the result is read back once. A preference that is disabled until another one is
+     * set is tapped in a further batch once it has been enabled.
+     *
+     * @param target the states to set, with one entry per checkbox on the screen
+     * @return the states read back after the last batch
+     * @throws IllegalArgumentException if target does not have as many checkboxes as the screen
+     * @throws IllegalStateException    if a preference that differs is disabled and stays so
+     */
+    public PreferenceStates setStates(PreferenceStates target) {
+        List<Boolean> wanted = target.asList();
+        UiSnapshot snapshot = waitUntilInSnapshot("preferenceStates", current -> {
+            preferenceNodes(current);
+            return current;
+        });
+        int checkboxes = preferenceNodes(snapshot).size() - 1;
+        if (checkboxes != target.checkboxes().size()) {
+            throw new IllegalArgumentException("Expected states for " + checkboxes + " checkboxes, got "
+                    + target.checkboxes().size());
+        }
+
+        while (true) {
+            List<UiNode> nodes = preferenceNodes(snapshot);
+            List<Integer> differing = IntStream.range(0, nodes.size())
+                    .filter(i -> nodes.get(i).checked() != wanted.get(i))
+                    .boxed()
+                    .toList();
+            List<Integer> tappable = differing.stream()
+                    .filter(i -> nodes.get(i).enabled())
+                    .toList();
+            if (differing.isEmpty()) {
+                return statesOf(snapshot);
+            }
+            if (tappable.isEmpty()) {
+                throw new IllegalStateException("Preferences " + differing + " differ from " + target
+                        + " but are disabled");
+            }
+
+            Gesture taps = gesture().tapAll(tappable.stream().map(nodes::get).toList());
+            snapshot = perform(taps, "preferenceStates", current -> {
+                List<UiNode> tapped = preferenceNodes(current);
+                return tappable.stream().allMatch(i -> tapped.get(i).checked() == wanted.get(i)) ? current : null;
+            });
         }
     }
 
     /**
-     * Locates all checkboxes on the screen and enables each one if it is not already checked.
+     * Turns the switch on, leaving the checkboxes as they are.
+     */
+    public void enablePreferenceSwitch() {
+        setStates(new PreferenceStates(true, readStates().checkboxes()));
+    }
+
+    /**
+     * Checks every checkbox, leaving the switch as it is.
      */
     public void enableCheckboxes() {
-        int count = driver.findElements(CHECKBOXES_LOCATOR).size();
-
-        IntStream.range(0, count)
-                .forEach(i -> {
-                    var checkbox = getCheckboxes().get(i);
-                    if (!isChecked(checkbox)) {
-                        click(checkbox);
-                    }
-                });
+        PreferenceStates current = readStates();
+        setStates(new PreferenceStates(current.switchOn(),
+                Collections.nCopies(current.checkboxes().size(), true)));
+    }
+
+    /**
+     * Turns the switch on and checks every checkbox in a single batch.
+     */
+    public void enableAll() {
+        setStates(new PreferenceStates(true, Collections.nCopies(readStates().checkboxes().size(), true)));
     }
 
     /**
@@ -57,21 +138,32 @@ public class PreferencesFromCodePage extends BasePage {
      * @return true if the switch is on and all checkboxes are checked; false otherwise
      */
     public boolean areElementsEnabled() {
-        boolean isSwitchOn = isChecked(preferenceSwitch);
-        boolean allChecked = getCheckboxes().stream()
-                .allMatch(this::isChecked);
+        return readStates().allEnabled();
+    }
 
-        return isSwitchOn && allChecked;
+    private static PreferenceStates statesOf(UiSnapshot snapshot) {
+        List<UiNode> nodes = preferenceNodes(snapshot);
+        return new PreferenceStates(nodes.get(0).checked(), nodes.stream()
+                .skip(1)
+                .map(UiNode::checked)
+                .toList());
     }
 
     /**
-     * Helper method to retrieve all checkbox WebElements on the screen.
+     * Returns the switch node followed by the checkbox nodes of the snapshot.
      *
-     * @return a List of WebElements matching the checkbox locator
+     * @throws NoSuchElementException if the switch or the checkboxes are not there yet
      */
-    private List<WebElement> getCheckboxes() {
-        new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT))
-                .until(ExpectedConditions.numberOfElementsToBeMoreThan(CHECKBOXES_LOCATOR, 0));
-        return driver.findElements(CHECKBOXES_LOCATOR);
+    private static List<UiNode> preferenceNodes(UiSnapshot snapshot) {
+        List<UiNode> checkboxes = snapshot.all(RESOURCE_ID, CHECKBOX_ID).stream()
+                .filter(node -> CHECKBOX_CLASS.equals(node.className()))
+                .toList();
+        if (checkboxes.isEmpty()) {
+            throw new NoSuchElementException("No checkboxes in the UI snapshot");
+        }
+        var nodes = new ArrayList<UiNode>();
+        nodes.add(snapshot.first(RESOURCE_ID, SWITCH_ID));
+        nodes.addAll(checkboxes);
+        return nodes;
     }
 }
@@ -0,0 +1,173 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.utils.LocatorProfile;
+import com.appflame.apidemos.utils.LocatorProfile.Resolution;
+import com.appflame.apidemos.utils.XPathRewriter;
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The search context page-object fields are resolved through: it times every lookup into {@link LocatorProfile}
+ * under the page's name, and resolves XPath locators through their {@link XPathRewriter} translation.
+ * <p>
+ * A rewrite that finds nothing falls back to the original XPath. Once a rewrite has found an element it is trusted,
+ * so later misses no longer pay for a second lookup; a rewrite that misses where the XPath finds an element is
+ * dropped for good. A rewrite that may find a different element than its XPath (see
+ * {@link XPathRewriter#isExact(String)}) is only trusted once the XPath has found the same element too; if the
+ * two disagree, the XPath's element is used and the rewrite is dropped. These decisions are shared by all pages.
+ */
+@Slf4j
+class ProfilingSearchContext implements SearchContext, WrapsDriver {
+    private static final Map<RewriteKey, Rewrite> REWRITES = new ConcurrentHashMap<>();
+
+    private final AndroidDriver driver;
+    private final String page;
+
+    /**
+     * @param driver the driver to search with
+     * @param page   the page object's simple class name, which lookups are recorded under
+     */
+    ProfilingSearchContext(AndroidDriver driver, String page) {
+        this.driver = driver;
+        this.page = page;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        Rewrite rewrite = rewriteOf(by, false);
+        long start = System.nanoTime();
+        Resolution resolution = Resolution.ORIGINAL;
+        boolean found = false;
+        try {
+            WebElement rewritten = null;
+            if (rewrite.usable()) {
+                try {
+                    rewritten = driver.findElement(rewrite.by());
+                    if (rewrite.exact || rewrite.verified) {
+                        rewrite.verified = true;
+                        resolution = Resolution.REWRITTEN;
+                        found = true;
+                        return rewritten;
+                    }
+                } catch (NoSuchElementException e) {
+                    if (rewrite.verified) {
+                        resolution = Resolution.REWRITTEN;
+                        throw e;
+                    }
+                }
+                resolution = Resolution.FALLBACK; // the rewrite found nothing, or has yet to be confirmed
+            }
+            WebElement element;
+            try {
+                element = driver.findElement(by);
+            } catch (NoSuchElementException e) {
+                if (rewritten != null) {
+                    drop(rewrite, by);
+                }
+                throw e;
+            }
+            found = true;
+            if (rewritten != null && rewritten.equals(element)) {
+                rewrite.verified = true;
+            } else if (resolution == Resolution.FALLBACK) {
+                drop(rewrite, by);
+            }
+            return element;
+        } finally {
+            record(by, rewrite, start, resolution, found);
+        }
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        Rewrite rewrite = rewriteOf(by, true);
+        long start = System.nanoTime();
+        Resolution resolution = Resolution.ORIGINAL;
+        List<WebElement> elements = List.of();
+        try {
+            if (rewrite.usable()) {
+                elements = driver.findElements(rewrite.by());
+                if (!elements.isEmpty()) {
+                    rewrite.verified = true;
+                }
+                if (!elements.isEmpty() || rewrite.verified) {
+                    resolution = Resolution.REWRITTEN;
+                    return elements;
+                }
+                resolution = Resolution.FALLBACK;
+            }
+            elements = driver.findElements(by);
+            if (!elements.isEmpty() && resolution == Resolution.FALLBACK) {
+                drop(rewrite, by);
+            }
+            return elements;
+        } finally {
+            record(by, rewrite, start, resolution, !elements.isEmpty());
+        }
+    }
+
+    private static Rewrite rewriteOf(By by, boolean multiple) {
+        Optional<String> xpath = XPathRewriter.isEnabled() ? XPathRewriter.xpathOf(by) : Optional.empty();
+        if (xpath.isEmpty()) {
+            return Rewrite.NONE;
+        }
+        return REWRITES.computeIfAbsent(new RewriteKey(xpath.get(), multiple),
+                key -> new Rewrite(XPathRewriter.rewrite(key.xpath(), key.multiple()).orElse(null),
+                        XPathRewriter.isExact(key.xpath())));
+    }
+
+    private void drop(Rewrite rewrite, By by) {
+        rewrite.dropped = true;
+        log.warn("{}: rewrite {} of {} did not find what the XPath did; using the XPath from now on",
+                page, rewrite.by(), by);
+    }
+
+    private void record(By by, Rewrite rewrite, long start, Resolution resolution, boolean found) {
+        LocatorProfile.record(page, by.toString(), rewrite.usable() || rewrite.dropped ? rewrite.by().toString() : null,
+                System.nanoTime() - start, resolution, found);
+    }
+
+    private record RewriteKey(String xpath, boolean multiple) {
+    }
+
+    /**
+     * The native translation of one XPath, and what lookups have shown about it so far.
+     */
+    private static final class Rewrite {
+        private static final Rewrite NONE = new Rewrite(null, true);
+
+        private final By by;
+        private final boolean exact;
+        private volatile boolean verified;
+        private volatile boolean dropped;
+
+        private Rewrite(By by, boolean exact) {
+            this.by = by;
+            this.exact = exact;
+        }
+
+        private By by() {
+            return by;
+        }
+
+        private boolean usable() {
+            return by != null && !dropped;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.utils.PageSourceParser;
+import com.appflame.apidemos.utils.PageSourceParser.ListRows;
+import com.appflame.apidemos.utils.UiSnapshot;
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy, scroll-aware traversal of the rows of a scrollable list, including those not rendered yet.
+ * <p>
+ * Rows are read from the page source one screen at a time. Only when every row of the current screen has
+ * been consumed does the list scroll by {@link #SCROLL_PERCENT} of its height (one “mobile: scrollGesture”
+ * round trip) and the next screen get fetched (one more). Rows already seen on an earlier screen are skipped,
+ * and the traversal ends once the list cannot scroll further, a scroll reveals nothing new, or the rows stop short
+ * of the list's bottom edge (the list fits on screen, so it is not scrolled at all). A short-circuiting
+ * stream operation such as allMatch or takeWhile therefore stops scrolling as soon as its answer is known.
+ * <p>
+ * Rows are identified by their text, so repeated texts are reported once. A ScrollingList is single-use, and the
+ * list is left scrolled where the traversal stopped.
+ */
+@Slf4j
+public class ScrollingList implements Spliterator<String> {
+    public static final double SCROLL_PERCENT = 0.75;
+
+    private final AndroidDriver driver;
+    private final String listId;
+    private final String rowClass;
+    private final Set<String> seen = new HashSet<>();
+    private final Queue<String> pending = new ArrayDeque<>();
+    private String nextPageSource;
+    private Rectangle bounds;
+    private boolean started;
+    private boolean canScroll = true;
+    private boolean exhausted;
+    private int scrolls;
+    private int pageFetches;
+
+    /**
+     * @param driver          the driver to scroll and fetch with
+     * @param listId          the list's resource id
+     * @param rowClass        the class of the row nodes to read
+     * @param firstPageSource an already fetched page source to start from, or null to fetch one
+     */
+    public ScrollingList(AndroidDriver driver, String listId, String rowClass, String firstPageSource) {
+        this.driver = driver;
+        this.listId = listId;
+        this.rowClass = rowClass;
+        this.nextPageSource = firstPageSource;
+    }
+
+    /**
+     * Returns the rows as a sequential stream that scrolls on demand.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(this, false);
+    }
+
+    /**
+     * Returns the number of scroll gestures sent so far.
+     */
+    public int scrolls() {
+        return scrolls;
+    }
+
+    /**
+     * Returns the number of page sources fetched so far, not counting one passed to the constructor.
+     */
+    public int pageFetches() {
+        return pageFetches;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (pending.isEmpty()) {
+            if (exhausted) {
+                return false;
+            }
+            if (!loadNextScreen()) {
+                exhausted = true;
+                log.debug("List {} ended after {} rows, {} scrolls and {} page fetches", listId, seen.size(), scrolls,
+                        pageFetches);
+                return false;
+            }
+        }
+        action.accept(pending.poll());
+        return true;
+    }
+
+    /**
+     * Reads the next screen of rows, scrolling first unless this is the first one.
+     *
+     * @return whether the screen had rows not seen before
+     */
+    private boolean loadNextScreen() {
+        if (started) {
+            if (!canScroll || bounds == null) {
+                return false;
+            }
+            canScroll = scrollDown();
+            scrolls++;
+            UiSnapshot.invalidate(driver);
+        }
+        started = true;
+
+        if (nextPageSource == null) {
+            nextPageSource = driver.getPageSource();
+            pageFetches++;
+        }
+        ListRows rows = PageSourceParser.listRows(nextPageSource, listId, rowClass);
+        nextPageSource = null;
+        bounds = rows.bounds();
+        if (rows.endsOnScreen()) {
+            canScroll = false;
+        }
+
+        int before = pending.size();
+        rows.texts().stream()
+                .filter(seen::add)
+                .forEach(pending::add);
+        return pending.size() > before;
+    }
+
+    private boolean scrollDown() {
+        Object canScrollMore = driver.executeScript("mobile: scrollGesture", Map.of(
+                "left", bounds.x, "top", bounds.y, "width", bounds.width, "height", bounds.height,
+                "direction", "down", "percent", SCROLL_PERCENT));
+        return Boolean.TRUE.equals(canScrollMore);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
@@ -0,0 +1,141 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Polling wait engine for page objects, meant to be used with implicit waits disabled.
+ * <p>
+ * Polls start {@link #FIRST_POLL_INTERVAL} apart and back off exponentially up to {@link #MAX_POLL_INTERVAL},
+ * so conditions that are already (or almost) met resolve in a few tens of milliseconds while long waits
+ * don't hammer the server. Lookups failing with NotFoundException or StaleElementReferenceException count
+ * as “not yet”. Every wait is recorded under its name: count, timeouts, polls, total and max elapsed time.
+ */
+@Slf4j
+public class AdaptiveWait {
+    public static final Duration FIRST_POLL_INTERVAL = Duration.ofMillis(50);
+    public static final Duration MAX_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Map<String, WaitStats> STATS = new TreeMap<>();
+
+    private AdaptiveWait() {
+    }
+
+    /**
+     * Recorded cost of every wait with one name.
+     *
+     * @param waits    number of waits
+     * @param timeouts number of waits that timed out
+     * @param polls    number of polls over all waits
+     * @param total    time spent in all waits
+     * @param max      the slowest wait
+     */
+    public record WaitStats(int waits, int timeouts, long polls, Duration total, Duration max) {
+
+        private WaitStats plus(WaitStats other) {
+            return new WaitStats(waits + other.waits, timeouts + other.timeouts, polls + other.polls,
+                    total.plus(other.total), other.max.compareTo(max) > 0 ? other.max : max);
+        }
+    }
+
+    /**
+     * Polls until the condition returns a value other than null or false.
+     *
+     * @param name      name the wait is recorded under
+     * @param timeout   how long to keep polling
+     * @param condition the condition to poll
+     * @return the condition's first accepted value
+     * @throws TimeoutException if the condition was not met within the timeout
+     */
+    public static <T> T until(String name, Duration timeout, Supplier<T> condition) {
+        return poll(name, timeout, condition, false);
+    }
+
+    /**
+     * Short-circuit wait for checks that may legitimately be negative: polls only while the probe cannot be
+     * answered (its element is missing or stale) and returns the first answer it gives, false included.
+     * A negative check on an element that is present costs a single poll instead of a full timeout.
+     *
+     * @param name    name the wait is recorded under
+     * @param timeout how long to keep polling for an answer
+     * @param probe   the check to evaluate
+     * @return the probe's first answer
+     * @throws TimeoutException if the probe could not be answered within the timeout
+     */
+    public static <T> T evaluate(String name, Duration timeout, Supplier<T> probe) {
+        return poll(name, timeout, probe, true);
+    }
+
+    /**
+     * Returns the recorded cost of every wait, by name.
+     */
+    public static Map<String, WaitStats> statistics() {
+        synchronized (STATS) {
+            return Map.copyOf(STATS);
+        }
+    }
+
+    /**
+     * Logs the cost of every wait, one line per name.
+     */
+    public static void logSummary() {
+        synchronized (STATS) {
+            STATS.forEach((name, stats) -> log.info("{}: {} waits, {} timeouts, {} polls, total {} ms, max {} ms",
+                    name, stats.waits(), stats.timeouts(), stats.polls(), stats.total().toMillis(),
+                    stats.max().toMillis()));
+        }
+    }
+
+    private static <T> T poll(String name, Duration timeout, Supplier<T> condition, boolean acceptFalse) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long intervalMillis = FIRST_POLL_INTERVAL.toMillis();
+        int polls = 0;
+        RuntimeException lastError = null;
+
+        while (true) {
+            polls++;
+            try {
+                T value = condition.get();
+                if (value != null && (acceptFalse || !Boolean.FALSE.equals(value))) {
+                    record(name, start, polls, false);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                record(name, start, polls, true);
+                throw new TimeoutException("Wait '" + name + "' timed out after " + timeout.toMillis()
+                        + " ms (" + polls + " polls)", lastError);
+            }
+
+            try {
+                Thread.sleep(Math.min(intervalMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted during wait '" + name + "'", e);
+            }
+            intervalMillis = Math.min(intervalMillis * 2, MAX_POLL_INTERVAL.toMillis());
+        }
+    }
+
+    private static void record(String name, long start, int polls, boolean timedOut) {
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.debug("Wait {} {} after {} ms and {} polls", name, timedOut ? "timed out" : "done", elapsed.toMillis(), polls);
+
+        synchronized (STATS) {
+            STATS.merge(name, new WaitStats(1, timedOut ? 1 : 0, polls, elapsed, elapsed), WaitStats::plus);
+        }
+    }
+}
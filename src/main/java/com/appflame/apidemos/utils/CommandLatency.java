@@ -0,0 +1,119 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suite-wide latency histograms of WebDriver commands (by command name) and of page-object methods
+ * (by “PageName.method”), with a JSON export and a tabular summary for reports.
+ */
+@Slf4j
+public class CommandLatency {
+    private static final Map<String, LatencyHistogram> COMMANDS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> PAGE_METHODS = new ConcurrentHashMap<>();
+
+    private CommandLatency() {
+    }
+
+    /**
+     * Records the round trip of one WebDriver command.
+     *
+     * @param command the command name, e.g. “findElement” or “executeScript(mobile: swipeGesture)”
+     * @param nanos   the latency in nanoseconds
+     */
+    public static void recordCommand(String command, long nanos) {
+        COMMANDS.computeIfAbsent(command, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Records one call of a page-object method.
+     *
+     * @param method the method, as “PageName.method”
+     * @param nanos  the latency in nanoseconds
+     */
+    public static void recordPageMethod(String method, long nanos) {
+        PAGE_METHODS.computeIfAbsent(method, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Returns a snapshot of every command's histogram, by command name.
+     */
+    public static Map<String, LatencyHistogram.Snapshot> commands() {
+        return snapshot(COMMANDS);
+    }
+
+    /**
+     * Returns a snapshot of every page-object method's histogram, by “PageName.method”.
+     */
+    public static Map<String, LatencyHistogram.Snapshot> pageMethods() {
+        return snapshot(PAGE_METHODS);
+    }
+
+    /**
+     * Writes all histograms as JSON: {"commands": {name: snapshot}, "pageMethods": {name: snapshot}}.
+     *
+     * @param file the file to write; parent directories are created
+     */
+    public static void writeJson(Path file) throws IOException {
+        var root = new LinkedHashMap<String, Object>();
+        root.put("commands", toJson(commands()));
+        root.put("pageMethods", toJson(pageMethods()));
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, new Json().toJson(root));
+        log.info("Command latency written to {}", file);
+    }
+
+    /**
+     * Returns a table of all histograms, one row per command or page method, headed by a row of column names.
+     */
+    public static String[][] summaryTable() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Kind", "Name", "Count", "Mean ms", "p50 ms", "p90 ms", "p99 ms", "Max ms"});
+        commands().forEach((name, snapshot) -> rows.add(row("command", name, snapshot)));
+        pageMethods().forEach((name, snapshot) -> rows.add(row("page", name, snapshot)));
+        return rows.toArray(String[][]::new);
+    }
+
+    private static Map<String, LatencyHistogram.Snapshot> snapshot(Map<String, LatencyHistogram> histograms) {
+        var snapshots = new TreeMap<String, LatencyHistogram.Snapshot>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+
+    private static Map<String, Object> toJson(Map<String, LatencyHistogram.Snapshot> snapshots) {
+        var json = new LinkedHashMap<String, Object>();
+        snapshots.forEach((name, snapshot) -> {
+            var fields = new LinkedHashMap<String, Object>();
+            fields.put("count", snapshot.count());
+            fields.put("meanMs", snapshot.meanMs());
+            fields.put("p50Ms", snapshot.p50Ms());
+            fields.put("p90Ms", snapshot.p90Ms());
+            fields.put("p99Ms", snapshot.p99Ms());
+            fields.put("maxMs", snapshot.maxMs());
+            fields.put("buckets", snapshot.buckets());
+            json.put(name, fields);
+        });
+        return json;
+    }
+
+    private static String[] row(String kind, String name, LatencyHistogram.Snapshot snapshot) {
+        return new String[]{kind, name, String.valueOf(snapshot.count()), format(snapshot.meanMs()),
+                format(snapshot.p50Ms()), format(snapshot.p90Ms()), format(snapshot.p99Ms()), format(snapshot.maxMs())};
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
@@ -0,0 +1,124 @@
+package com.appflame.apidemos.utils;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Histogram of per-pixel R+G+B differences, bucketed by diff value (0..765), that also keeps the
+ * sum of x-coordinates falling into each bucket.
+ * <p>
+ * Because the dynamic threshold used by {@link MotionDetector} is derived from the maximum diff,
+ * filling this histogram in a single pass is enough to answer “centroid of all pixels whose diff is
+ * above maxDiff / 2” afterwards, without re-reading the images. Unchanged pixels (diff 0) can never
+ * be above the threshold and are not recorded at all.
+ */
+final class DiffHistogram {
+    static final int BINS = 3 * 255 + 1;
+    private static final int MAX_IDLE = 64;
+    private static final Queue<DiffHistogram> IDLE = new ConcurrentLinkedQueue<>();
+
+    final int[] counts = new int[BINS];
+    final long[] sumX = new long[BINS];
+    final int[] laneScratch = new int[DiffKernels.MAX_LANES];
+
+    private DiffHistogram() {
+    }
+
+    /**
+     * Returns an empty histogram, reusing a released one when available.
+     */
+    static DiffHistogram acquire() {
+        DiffHistogram histogram = IDLE.poll();
+        return histogram != null ? histogram : new DiffHistogram();
+    }
+
+    /**
+     * Clears this histogram and makes it available to {@link #acquire()}. It must not be used afterwards.
+     */
+    void release() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(sumX, 0);
+        if (IDLE.size() < MAX_IDLE) {
+            IDLE.offer(this);
+        }
+    }
+
+    /**
+     * Records every pixel of a row whose R+G+B difference is non-zero, using the fastest available
+     * {@link DiffKernel}.
+     *
+     * @param before    array holding the “before” row as packed RGB ints
+     * @param beforeOff offset of the first pixel in before
+     * @param after     array holding the “after” row as packed RGB ints
+     * @param afterOff  offset of the first pixel in after
+     * @param width     the number of pixels in the row
+     */
+    void addRow(int[] before, int beforeOff, int[] after, int afterOff, int width) {
+        DiffKernels.DEFAULT.addRow(this, before, beforeOff, after, afterOff, width);
+    }
+
+    /**
+     * Records every pixel of a luminance row whose value changed. Luminance diffs range over 0..255.
+     *
+     * @param before the “before” plane
+     * @param after  the “after” plane
+     * @param offset index of the first pixel of the row in both planes
+     * @param width  the number of pixels in the row
+     */
+    void addLumaRow(byte[] before, byte[] after, int offset, int width) {
+        for (int x = 0; x < width; x++) {
+            int diff = Math.abs((after[offset + x] & 0xFF) - (before[offset + x] & 0xFF));
+            if (diff != 0) {
+                counts[diff]++;
+                sumX[diff] += x;
+            }
+        }
+    }
+
+    /**
+     * Adds the buckets of another histogram into this one. Since buckets only hold integer counts and
+     * sums, merging partial histograms gives the same result regardless of how the rows were split.
+     *
+     * @param other the histogram to merge into this one
+     * @return this histogram
+     */
+    DiffHistogram merge(DiffHistogram other) {
+        for (int d = 1; d < BINS; d++) {
+            counts[d] += other.counts[d];
+            sumX[d] += other.sumX[d];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the largest diff value that was recorded, or 0 if no pixel changed.
+     */
+    int maxDiff() {
+        for (int d = BINS - 1; d > 0; d--) {
+            if (counts[d] != 0) {
+                return d;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the X centroid of all pixels whose diff is strictly greater than maxDiff / 2,
+     * or –1 if nothing changed.
+     */
+    int centroidX() {
+        int maxDiff = maxDiff();
+        if (maxDiff == 0) {
+            return -1;
+        }
+
+        long totalX = 0;
+        long count = 0;
+        for (int d = maxDiff / 2 + 1; d <= maxDiff; d++) {
+            totalX += sumX[d];
+            count += counts[d];
+        }
+        return count == 0 ? -1 : (int) (totalX / count);
+    }
+}
@@ -0,0 +1,20 @@
+package com.appflame.apidemos.utils;
+
+/**
+ * Inner loop of the RGB diff: folds the R+G+B difference of every changed pixel of a row into a
+ * {@link DiffHistogram}. Implementations must produce bit-identical histograms.
+ */
+interface DiffKernel {
+
+    /**
+     * Records every pixel of a row whose R+G+B difference is non-zero.
+     *
+     * @param histogram the histogram to update
+     * @param before    array holding the “before” row as packed RGB ints
+     * @param beforeOff offset of the first pixel in before
+     * @param after     array holding the “after” row as packed RGB ints
+     * @param afterOff  offset of the first pixel in after
+     * @param width     the number of pixels in the row
+     */
+    void addRow(DiffHistogram histogram, int[] before, int beforeOff, int[] after, int afterOff, int width);
+}
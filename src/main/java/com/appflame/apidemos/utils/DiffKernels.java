@@ -0,0 +1,49 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Runtime selection of the {@link DiffKernel} used by {@link DiffHistogram}.
+ * <p>
+ * The vector kernel is used when the JVM was started with {@code --add-modules jdk.incubator.vector};
+ * otherwise, or when {@code -Dapidemos.diffKernel=scalar} is set, the scalar kernel is used.
+ */
+@Slf4j
+final class DiffKernels {
+    static final String KERNEL_PROPERTY = "apidemos.diffKernel";
+    static final int MAX_LANES = 64;
+    static final DiffKernel SCALAR = new ScalarDiffKernel();
+    static final DiffKernel DEFAULT = select();
+
+    private DiffKernels() {
+    }
+
+    /**
+     * Returns the vector kernel, or empty if jdk.incubator.vector is not available to this JVM.
+     */
+    static Optional<DiffKernel> vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((DiffKernel) Class.forName("com.appflame.apidemos.utils.VectorDiffKernel")
+                    .getDeclaredConstructor()
+                    .newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.debug("Vector diff kernel unavailable: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static DiffKernel select() {
+        if ("scalar".equalsIgnoreCase(System.getProperty(KERNEL_PROPERTY))) {
+            log.info("Using scalar diff kernel ({}=scalar)", KERNEL_PROPERTY);
+            return SCALAR;
+        }
+        DiffKernel kernel = vector().orElse(SCALAR);
+        log.info("Using {} diff kernel", kernel == SCALAR ? "scalar" : "vector");
+        return kernel;
+    }
+}
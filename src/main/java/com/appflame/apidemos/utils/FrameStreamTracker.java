@@ -0,0 +1,274 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Tracks motion continuously over an MJPEG frame stream, e.g. the UiAutomator2 MJPEG screen stream
+ * or a recorded .mjpeg file.
+ * <p>
+ * A reader thread splits the stream into JPEG frames and stamps each one; an analyser thread decodes
+ * them into subsampled {@link LumaFrame}s and localises motion between consecutive frames. The two
+ * are connected by a queue of {@value #QUEUE_CAPACITY} frames, so a slow analyser throttles reading
+ * instead of buffering the stream without bound. The result is a {@link Trajectory}; call
+ * {@link #markAction()} right before performing the action under test, so that
+ * {@link Trajectory#timeToFirstMotion()} measures from it.
+ * <p>
+ * Frames that cannot be decoded, or compared with the previous one (e.g. because the size changed on
+ * rotation), are skipped. If the analyser fails otherwise, it keeps draining the queue so reading can
+ * finish, and {@link #awaitEnd()} rethrows the failure.
+ */
+@Slf4j
+public class FrameStreamTracker implements AutoCloseable {
+    public static final int QUEUE_CAPACITY = 16;
+
+    private static final EncodedFrame END_OF_STREAM = new EncodedFrame(-1, -1, null);
+
+    private final MjpegFrameReader reader;
+    private final int step;
+    private final LongUnaryOperator timestamps;
+    private final BlockingQueue<EncodedFrame> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<Trajectory.Sample> samples = new ArrayList<>();
+    private final Thread readerThread;
+    private final Thread analyserThread;
+    private volatile boolean stopping;
+    private volatile Throwable failure;
+    private volatile long actionNanos = -1;
+
+    private FrameStreamTracker(InputStream mjpeg, int step, LongUnaryOperator timestamps) {
+        this.reader = new MjpegFrameReader(mjpeg);
+        this.step = step;
+        this.timestamps = timestamps;
+        this.readerThread = new Thread(this::readFrames, "mjpeg-reader");
+        this.analyserThread = new Thread(this::analyseFrames, "mjpeg-analyser");
+        readerThread.setDaemon(true);
+        analyserThread.setDaemon(true);
+        readerThread.start();
+        analyserThread.start();
+    }
+
+    /**
+     * Starts tracking the MJPEG stream served by UiAutomator2 on the given local port
+     * (see the mjpegServerPort capability). Frames are stamped with their arrival time.
+     *
+     * @param port the local MJPEG server port
+     * @param step subsampling step used for analysis
+     * @return the running tracker; call {@link #stop()} to get the trajectory
+     */
+    public static FrameStreamTracker startMjpegServer(int port, int step) throws IOException {
+        var url = new URL("http://127.0.0.1:" + port);
+        log.info("Tracking MJPEG stream at {}", url);
+        return start(url.openStream(), step);
+    }
+
+    /**
+     * Starts tracking a live MJPEG stream. Frames are stamped with their arrival time.
+     *
+     * @param mjpeg the stream to read; closed when tracking stops
+     * @param step  subsampling step used for analysis
+     * @return the running tracker; call {@link #stop()} to get the trajectory
+     */
+    public static FrameStreamTracker start(InputStream mjpeg, int step) {
+        return new FrameStreamTracker(mjpeg, step, new ArrivalClock());
+    }
+
+    /**
+     * Tracks a recorded MJPEG file to its end, assuming a constant frame rate.
+     *
+     * @param mjpeg the recorded file
+     * @param fps   the frame rate the file was recorded at
+     * @param step  subsampling step used for analysis
+     * @return the trajectory over the whole file
+     */
+    public static Trajectory trackFile(Path mjpeg, double fps, int step) throws IOException {
+        double frameMillis = 1000.0 / fps;
+        try (var tracker = new FrameStreamTracker(Files.newInputStream(mjpeg), step,
+                index -> Math.round(index * frameMillis))) {
+            return tracker.awaitEnd();
+        }
+    }
+
+    /**
+     * Marks the current time as the moment of the action under test, on the clock the frames are stamped with.
+     * Only live streams can be marked; for a recorded file use {@link Trajectory#withActionAt(long)}.
+     *
+     * @throws IllegalStateException if this tracker replays a recorded file
+     */
+    public void markAction() {
+        if (!(timestamps instanceof ArrivalClock)) {
+            throw new IllegalStateException("A recorded stream has no live clock; use Trajectory.withActionAt");
+        }
+        actionNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits until the stream ends and every frame has been analysed.
+     *
+     * @return the trajectory
+     * @throws IllegalStateException if the analysis failed
+     */
+    public Trajectory awaitEnd() {
+        join(readerThread);
+        join(analyserThread);
+        if (failure != null) {
+            throw new IllegalStateException("MJPEG analysis failed", failure);
+        }
+        return trajectory();
+    }
+
+    /**
+     * Stops reading, analyses the frames already received and returns the trajectory.
+     *
+     * @return the trajectory
+     */
+    public Trajectory stop() {
+        stopping = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.debug("Error closing MJPEG stream: {}", e.getMessage());
+        }
+        return awaitEnd();
+    }
+
+    @Override
+    public void close() {
+        if (readerThread.isAlive()) {
+            stop();
+        }
+    }
+
+    private synchronized Trajectory trajectory() {
+        long action = actionNanos;
+        return new Trajectory(List.copyOf(samples),
+                action < 0 ? null : ((ArrivalClock) timestamps).millisAt(action));
+    }
+
+    private void readFrames() {
+        int index = 0;
+        try {
+            byte[] frame;
+            while ((frame = reader.nextFrame()) != null) {
+                queue.put(new EncodedFrame(index, timestamps.applyAsLong(index), frame));
+                index++;
+            }
+        } catch (IOException e) {
+            if (!stopping) {
+                log.warn("MJPEG stream failed after {} frames: {}", index, e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            log.debug("MJPEG reader finished after {} frames", index);
+            putEndOfStream();
+        }
+    }
+
+    private void analyseFrames() {
+        LumaFrame previous = null;
+        try {
+            EncodedFrame frame;
+            while ((frame = queue.take()) != END_OF_STREAM) {
+                LumaFrame current;
+                try {
+                    current = LumaFrame.decode(frame.bytes(), step, null);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping undecodable frame #{}: {}", frame.index(), e.getMessage());
+                    continue;
+                }
+
+                if (previous != null) {
+                    try {
+                        MotionRegion region = MotionDetector.locateMotion(previous, current).orElse(null);
+                        synchronized (this) {
+                            samples.add(new Trajectory.Sample(frame.index(), frame.timestampMs(), region));
+                        }
+                    } catch (RuntimeException e) {
+                        // e.g. the frame size changed on rotation: start over from this frame
+                        log.warn("Skipping frame pair #{}-#{}: {}", frame.index() - 1, frame.index(), e.getMessage());
+                    }
+                    previous.release();
+                }
+                previous = current;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            log.error("MJPEG analysis failed, discarding the rest of the stream", e);
+            drainQueue();
+        } finally {
+            if (previous != null) {
+                previous.release();
+            }
+        }
+    }
+
+    /**
+     * Takes frames until the end of the stream, so the reader never blocks on a full queue.
+     */
+    private void drainQueue() {
+        try {
+            while (queue.take() != END_OF_STREAM) {
+                // discard
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putEndOfStream() {
+        try {
+            queue.put(END_OF_STREAM);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + thread.getName(), e);
+        }
+    }
+
+    private record EncodedFrame(int index, long timestampMs, byte[] bytes) {
+    }
+
+    /**
+     * Stamps frames with their arrival time relative to the first frame.
+     */
+    private static final class ArrivalClock implements LongUnaryOperator {
+        private volatile long firstNanos = -1;
+
+        @Override
+        public long applyAsLong(long index) {
+            long now = System.nanoTime();
+            if (firstNanos < 0) {
+                firstNanos = now;
+            }
+            return (now - firstNanos) / 1_000_000;
+        }
+
+        /**
+         * Converts a System.nanoTime() reading to this clock, i.e. to milliseconds after the first frame,
+         * negative if it came before; 0 if no frame has arrived.
+         */
+        private long millisAt(long nanos) {
+            long first = firstNanos;
+            return first < 0 ? 0 : Math.floorDiv(nanos - first, 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.appflame.apidemos.utils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Decodes encoded screenshots (PNG, JPEG…) from memory into images drawn from {@link PixelBufferPool}.
+ * <p>
+ * Unlike ImageIO.read(InputStream), which by default caches the stream in a temp file, input is read
+ * through a MemoryCacheImageInputStream. The last ImageReader used on each thread is kept and reused
+ * while the format stays the same.
+ */
+final class ImageDecoder {
+    private static final ThreadLocal<ImageReader> LAST_READER = new ThreadLocal<>();
+
+    private ImageDecoder() {
+    }
+
+    /**
+     * Result of a decode: the pooled image and the area of the source image it was decoded from.
+     */
+    record Decoded(BufferedImage image, Rectangle source) {
+    }
+
+    /**
+     * Decodes region of the encoded image, keeping every step-th pixel and row.
+     *
+     * @param encoded the encoded image bytes
+     * @param step    subsampling step (1 = full resolution)
+     * @param region  the source region to decode (clipped to the image), or null for the whole image
+     * @return the decoded image, borrowed from PixelBufferPool, and the clipped source region
+     * @throws IOException if the bytes cannot be decoded
+     */
+    static Decoded decode(byte[] encoded, int step, Rectangle region) throws IOException {
+        if (step < 1) {
+            throw new IllegalArgumentException("Subsampling step must be at least 1, got " + step);
+        }
+
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(encoded))) {
+            ImageReader reader = readerFor(input);
+            try {
+                reader.setInput(input, true, true);
+
+                var full = new Rectangle(0, 0, reader.getWidth(0), reader.getHeight(0));
+                Rectangle source = region == null ? full : full.intersection(region);
+                if (source.isEmpty()) {
+                    throw new IllegalArgumentException("Region " + region + " lies outside the "
+                            + full.width + "x" + full.height + " image");
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(source);
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                ImageTypeSpecifier type = reader.getImageTypes(0).next();
+                BufferedImage destination = PixelBufferPool.borrowImage(type,
+                        (source.width + step - 1) / step, (source.height + step - 1) / step);
+                param.setDestination(destination);
+
+                try {
+                    return new Decoded(reader.read(0, param), source);
+                } catch (IOException | RuntimeException e) {
+                    PixelBufferPool.release(destination);
+                    throw e;
+                }
+            } finally {
+                reader.reset();
+            }
+        }
+    }
+
+    /**
+     * Returns this thread’s cached reader if it understands the input, otherwise looks one up and caches it.
+     */
+    private static ImageReader readerFor(ImageInputStream input) throws IOException {
+        ImageReader cached = LAST_READER.get();
+        if (cached != null && cached.getOriginatingProvider().canDecodeInput(input)) {
+            return cached;
+        }
+
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("No ImageIO reader found for screenshot bytes");
+        }
+        ImageReader reader = readers.next();
+        LAST_READER.set(reader);
+        return reader;
+    }
+}
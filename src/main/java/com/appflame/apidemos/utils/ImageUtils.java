@@ -3,14 +3,14 @@ package com.appflame.apidemos.utils;
 import io.appium.java_client.android.AndroidDriver;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebElement;
 
-import javax.imageio.ImageIO;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Utility class for capturing screenshots from an AndroidDriver and detecting motion
@@ -24,32 +24,120 @@ public class ImageUtils {
 
     /**
      * Captures a screenshot of the current screen and returns it as a BufferedImage.
-     * Also copies the underlying PNG into "./test-screenshots" with a timestamped name.
+     * The PNG bytes are fetched once and decoded from memory; a copy is handed to
+     * {@link ScreenshotWriter} to be saved into "./test-screenshots" with a timestamped name
+     * in the background.
      */
     public static BufferedImage takeScreenshotAsImage(AndroidDriver driver) throws IOException {
-        File tmp = driver.getScreenshotAs(OutputType.FILE);
+        byte[] png = captureScreenshotBytes(driver);
 
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        Path screenshotsDir = Path.of(System.getProperty("user.dir"), "test-screenshots");
-        Files.createDirectories(screenshotsDir);
+        return decode(png);
+    }
+
+    /**
+     * Captures a screenshot of just the given element (via the element screenshot endpoint) and returns it
+     * as a BufferedImage. Only the element’s pixels are transferred and decoded, which for small elements
+     * is a fraction of a full-screen capture. The PNG is saved like full-screen captures.
+     *
+     * @param element the element to capture
+     * @return the element’s pixels
+     */
+    public static BufferedImage takeElementScreenshotAsImage(WebElement element) throws IOException {
+        byte[] png = element.getScreenshotAs(OutputType.BYTES);
+        queueForDisk(png);
+        return decode(png);
+    }
+
+    /**
+     * Decodes PNG (or any ImageIO-supported) bytes from memory into a full-resolution image whose raster
+     * is borrowed from {@link PixelBufferPool}. Pass the image to {@link #release(BufferedImage)} when done
+     * so the next decode of the same size can reuse it.
+     *
+     * @param encoded the encoded image bytes
+     * @return the decoded image
+     */
+    public static BufferedImage decode(byte[] encoded) throws IOException {
+        return ImageDecoder.decode(encoded, 1, null).image();
+    }
+
+    /**
+     * Returns an image obtained from one of the capture or decode methods to {@link PixelBufferPool}.
+     * The image must not be used afterwards. Crops are not pooled, as they share their frame's pixels.
+     *
+     * @param image the image to release
+     */
+    public static void release(BufferedImage image) {
+        PixelBufferPool.release(image);
+    }
+
+    /**
+     * Returns the part of an already captured frame covered by the given rectangle (e.g. an element’s
+     * {@link WebElement#getRect()}), clipped to the frame. The crop shares pixels with the frame, so it costs
+     * no copy and can be passed to any of the comparison methods.
+     *
+     * @param frame the full-screen image
+     * @param area  the area to keep
+     * @return the cropped image
+     */
+    public static BufferedImage crop(BufferedImage frame, Rectangle area) {
+        Rectangle clipped = area.intersection(new Rectangle(0, 0, frame.getWidth(), frame.getHeight()));
+        if (clipped.isEmpty()) {
+            throw new IllegalArgumentException("Crop area " + area + " lies outside the "
+                    + frame.getWidth() + "x" + frame.getHeight() + " frame");
+        }
+        return frame.getSubimage(clipped.x, clipped.y, clipped.width, clipped.height);
+    }
+
+    /**
+     * Same as {@link #crop(BufferedImage, Rectangle)} for a Selenium rectangle.
+     */
+    public static BufferedImage crop(BufferedImage frame, org.openqa.selenium.Rectangle area) {
+        return crop(frame, new Rectangle(area.getX(), area.getY(), area.getWidth(), area.getHeight()));
+    }
 
-        Path destination = screenshotsDir.resolve(timestamp + ".png");
-        Files.copy(tmp.toPath(), destination, StandardCopyOption.REPLACE_EXISTING);
-        log.info("Screenshot saved to: {}", destination.toAbsolutePath());
+    /**
+     * Captures a screenshot of the current screen and decodes it straight into a subsampled luminance
+     * plane, which needs a fraction of the heap of a full ARGB BufferedImage. The PNG itself is saved
+     * exactly like in {@link #takeScreenshotAsImage(AndroidDriver)}.
+     *
+     * @param driver the AndroidDriver to capture from
+     * @param step   subsampling step in both directions (e.g. 2 keeps every other pixel and row)
+     * @return the decoded LumaFrame
+     */
+    public static LumaFrame takeScreenshotAsLuma(AndroidDriver driver, int step) throws IOException {
+        byte[] png = captureScreenshotBytes(driver);
+
+        return LumaFrame.decode(png, step, null);
+    }
+
+    /**
+     * Fetches the current screenshot as PNG bytes and queues a copy for "./test-screenshots".
+     */
+    private static byte[] captureScreenshotBytes(AndroidDriver driver) {
+        byte[] png = driver.getScreenshotAs(OutputType.BYTES);
+        queueForDisk(png);
+        return png;
+    }
 
-        return ImageIO.read(tmp);
+    /**
+     * Queues PNG bytes to be saved into "./test-screenshots" with a timestamped name.
+     */
+    private static void queueForDisk(byte[] png) {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        Path destination = Path.of(System.getProperty("user.dir"), "test-screenshots", timestamp + ".png");
+        ScreenshotWriter.write(destination, png);
     }
 
     /**
      * Compares two BufferedImages (before & after) and returns the X‐coordinate of the centroid
      * of all pixels whose color changed “significantly.” This method:
      * <p>
-     * 1) Scans every pixel and computes diff = |r2–r1| + |g2–g1| + |b2–b1|.
+     * 1) Computes diff = |r2–r1| + |g2–g1| + |b2–b1| for every pixel, reading the rasters directly.
      * 2) Tracks maxDiff = the largest such diff among all pixels.
      * 3) Sets a dynamic threshold = maxDiff * 0.5 (50% of the maximum).
-     * 4) In a second pass, collects all pixels whose diff > dynamic threshold, and computes
-     * the centroid X = (sum of their x-coordinates) / (their count).
+     * 4) Computes the centroid X = (sum of x-coordinates) / (count) of all pixels whose diff > threshold.
      * <p>
+     * All of the above is done in a single scan; see {@link MotionDetector} for details.
      * Returns –1 if no pixels exceed the dynamic threshold (i.e. no detectable motion).
      *
      * @param before the BufferedImage taken before dragging the SeekBar
@@ -57,71 +145,77 @@ public class ImageUtils {
      * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
      */
     public static int findMovementX(BufferedImage before, BufferedImage after) {
-        int width = before.getWidth();
-        int height = before.getHeight();
-
-        if (after.getWidth() != width || after.getHeight() != height) {
-            throw new IllegalArgumentException("Before/After images must match dimensions");
-        }
-
-        // First pass: find the maximum R+G+B difference among all pixels
-        int maxDiff = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb1 = before.getRGB(x, y);
-                int rgb2 = after.getRGB(x, y);
-
-                int r1 = (rgb1 >> 16) & 0xFF;
-                int g1 = (rgb1 >> 8) & 0xFF;
-                int b1 = (rgb1) & 0xFF;
-
-                int r2 = (rgb2 >> 16) & 0xFF;
-                int g2 = (rgb2 >> 8) & 0xFF;
-                int b2 = (rgb2) & 0xFF;
-
-                int diff = Math.abs(r2 - r1) + Math.abs(g2 - g1) + Math.abs(b2 - b1);
-                if (diff > maxDiff) {
-                    maxDiff = diff;
-                }
-            }
-        }
-
-        // If nothing changed at all, maxDiff will remain 0 → no motion detected
-        if (maxDiff == 0) {
-            return -1;
-        }
-
-        // Compute a dynamic threshold at 50% of the maximum observed difference
-        int dynamicThreshold = maxDiff / 2;
+        return MotionDetector.findMovementX(before, after);
+    }
 
-        long sumX = 0;
-        int count = 0;
+    /**
+     * Same contract as {@link #findMovementX(BufferedImage, BufferedImage)} for luminance planes produced
+     * by {@link #takeScreenshotAsLuma(AndroidDriver, int)}. The diff is |luma2 – luma1| and the returned
+     * X is in original frame coordinates.
+     *
+     * @param before the LumaFrame taken before the action
+     * @param after  the LumaFrame taken after the action
+     * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementX(LumaFrame before, LumaFrame after) {
+        return MotionDetector.findMovementX(before, after);
+    }
 
-        // Second pass: collect all pixels whose diff > dynamicThreshold
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb1 = before.getRGB(x, y);
-                int rgb2 = after.getRGB(x, y);
+    /**
+     * Same contract as {@link #findMovementX(BufferedImage, BufferedImage)}, but diffs row stripes
+     * concurrently on the common ForkJoinPool. Small images are compared sequentially.
+     *
+     * @param before the BufferedImage taken before dragging the SeekBar
+     * @param after  the BufferedImage taken after dragging the SeekBar
+     * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementXParallel(BufferedImage before, BufferedImage after) {
+        return MotionDetector.findMovementXParallel(before, after);
+    }
 
-                int r1 = (rgb1 >> 16) & 0xFF;
-                int g1 = (rgb1 >> 8) & 0xFF;
-                int b1 = (rgb1) & 0xFF;
+    /**
+     * Localises motion between two full-frame images. See
+     * {@link #locateMotion(BufferedImage, BufferedImage, MotionMask)}.
+     */
+    public static Optional<MotionRegion> locateMotion(BufferedImage before, BufferedImage after) {
+        return locateMotion(before, after, MotionMask.fullFrame());
+    }
 
-                int r2 = (rgb2 >> 16) & 0xFF;
-                int g2 = (rgb2 >> 8) & 0xFF;
-                int b2 = (rgb2) & 0xFF;
+    /**
+     * Localises motion between two images inside the given mask: first on a downsampled grid to find the
+     * blocks that changed, then at full resolution within those blocks only. Returns the bounding box,
+     * X/Y centroid and count of pixels whose diff exceeds 50% of the maximum diff.
+     *
+     * @param before the BufferedImage taken before the action
+     * @param after  the BufferedImage taken after the action
+     * @param mask   the region of interest and excluded areas (e.g. {@link #systemBarsMask(AndroidDriver)})
+     * @return the MotionRegion, or empty if nothing changed inside the mask
+     */
+    public static Optional<MotionRegion> locateMotion(BufferedImage before, BufferedImage after, MotionMask mask) {
+        return MotionDetector.locateMotion(before, after, mask);
+    }
 
-                int diff = Math.abs(r2 - r1) + Math.abs(g2 - g1) + Math.abs(b2 - b1);
-                if (diff > dynamicThreshold) {
-                    sumX += x;
-                    count++;
-                }
+    /**
+     * Builds a MotionMask that excludes the status bar and navigation bar, as reported by the device,
+     * so clock ticks and notification icons do not count as motion.
+     *
+     * @param driver the AndroidDriver connected to the device
+     * @return a full-frame MotionMask with the visible system bars excluded
+     */
+    public static MotionMask systemBarsMask(AndroidDriver driver) {
+        MotionMask mask = MotionMask.fullFrame();
+        for (Map<String, Object> bar : driver.getSystemBars().values()) {
+            if (!Boolean.TRUE.equals(bar.get("visible"))) {
+                continue;
             }
+            var area = new Rectangle(
+                    ((Number) bar.get("x")).intValue(),
+                    ((Number) bar.get("y")).intValue(),
+                    ((Number) bar.get("width")).intValue(),
+                    ((Number) bar.get("height")).intValue());
+            log.debug("Excluding system bar {} from motion detection", area);
+            mask = mask.excluding(area);
         }
-
-        if (count == 0) {
-            return -1;  // no pixel exceed the dynamic threshold
-        }
-        return (int) (sumX / count);
+        return mask;
     }
 }
@@ -0,0 +1,94 @@
+package com.appflame.apidemos.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed, roughly logarithmic buckets from 0.25 ms to 10 s.
+ * Recording is a handful of atomic increments, so it can sit on every driver command.
+ * Percentiles are resolved to the upper bound of their bucket.
+ */
+public final class LatencyHistogram {
+    private static final long[] BOUNDS_MICROS = {
+            250, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000,
+            200_000, 500_000, 1_000_000, 2_000_000, 5_000_000, 10_000_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Point-in-time summary of a histogram, in milliseconds.
+     *
+     * @param count   number of recorded latencies
+     * @param meanMs  mean latency
+     * @param p50Ms   median latency (bucket upper bound)
+     * @param p90Ms   90th percentile latency (bucket upper bound)
+     * @param p99Ms   99th percentile latency (bucket upper bound)
+     * @param maxMs   largest latency
+     * @param buckets count per bucket, keyed by the bucket's upper bound ("<=0.25ms", ..., ">10000.0ms")
+     */
+    public record Snapshot(long count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs,
+                           Map<String, Long> buckets) {
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns a summary of everything recorded so far.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        var byBound = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+            String label = i < BOUNDS_MICROS.length
+                    ? "<=" + millis(BOUNDS_MICROS[i] * 1_000) + "ms"
+                    : ">" + millis(BOUNDS_MICROS[BOUNDS_MICROS.length - 1] * 1_000) + "ms";
+            byBound.put(label, counts[i]);
+        }
+
+        double maxMs = millis(maxNanos.get());
+        double meanMs = total == 0 ? 0 : millis(totalNanos.sum()) / count.sum();
+        return new Snapshot(total, meanMs, percentile(counts, total, 0.50, maxMs),
+                percentile(counts, total, 0.90, maxMs), percentile(counts, total, 0.99, maxMs), maxMs, byBound);
+    }
+
+    private static double percentile(long[] counts, long total, double quantile, double maxMs) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(BOUNDS_MICROS[i] / 1_000.0, maxMs);
+            }
+        }
+        return maxMs;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
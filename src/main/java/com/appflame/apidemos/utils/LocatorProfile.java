@@ -0,0 +1,144 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite-wide cost of every page-object locator, by page and locator: a latency histogram of its lookups,
+ * how many were served by an {@link XPathRewriter XPath rewrite} or fell back to the original XPath, and how
+ * many found nothing. Locators whose p90 exceeds {@link #SLOW_THRESHOLD} are flagged as slow.
+ */
+@Slf4j
+public class LocatorProfile {
+    public static final Duration SLOW_THRESHOLD = Duration.ofMillis(300);
+
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private LocatorProfile() {
+    }
+
+    /**
+     * How a lookup was resolved.
+     */
+    public enum Resolution {
+        /** With the locator as declared. */
+        ORIGINAL,
+        /** With its native rewrite. */
+        REWRITTEN,
+        /** With the original XPath, after its rewrite found nothing or to confirm what the rewrite found. */
+        FALLBACK
+    }
+
+    /**
+     * Recorded cost of one locator on one page.
+     *
+     * @param page      the page object's simple class name
+     * @param locator   the locator as declared
+     * @param rewrite   the native locator it is rewritten to, or null if none
+     * @param latency   latency of its lookups, fallbacks included
+     * @param rewritten lookups served by the rewrite
+     * @param fallbacks lookups that fell back to the original XPath
+     * @param notFound  lookups that found nothing
+     */
+    public record Summary(String page, String locator, String rewrite, LatencyHistogram.Snapshot latency,
+                          long rewritten, long fallbacks, long notFound) {
+
+        /**
+         * Returns whether this locator's p90 latency exceeds {@link #SLOW_THRESHOLD}.
+         */
+        public boolean slow() {
+            return latency.p90Ms() > SLOW_THRESHOLD.toMillis();
+        }
+    }
+
+    private record Key(String page, String locator) {
+    }
+
+    private static final class Entry {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder rewritten = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+        private volatile String rewrite;
+    }
+
+    /**
+     * Records one lookup.
+     *
+     * @param page       the page object's simple class name
+     * @param locator    the locator as declared
+     * @param rewrite    the native locator it is rewritten to, or null if none
+     * @param nanos      the lookup's latency in nanoseconds
+     * @param resolution how the lookup was resolved
+     * @param found      whether it found anything
+     */
+    public static void record(String page, String locator, String rewrite, long nanos, Resolution resolution,
+                              boolean found) {
+        Entry entry = ENTRIES.computeIfAbsent(new Key(page, locator), key -> new Entry());
+        entry.rewrite = rewrite;
+        entry.histogram.record(nanos);
+        switch (resolution) {
+            case REWRITTEN -> entry.rewritten.increment();
+            case FALLBACK -> entry.fallbacks.increment();
+            case ORIGINAL -> {
+            }
+        }
+        if (!found) {
+            entry.notFound.increment();
+        }
+    }
+
+    /**
+     * Returns the cost of every locator, by page, slowest mean first within a page.
+     */
+    public static List<Summary> summaries() {
+        var summaries = new ArrayList<Summary>();
+        ENTRIES.forEach((key, entry) -> summaries.add(new Summary(key.page(), key.locator(), entry.rewrite,
+                entry.histogram.snapshot(), entry.rewritten.sum(), entry.fallbacks.sum(), entry.notFound.sum())));
+        summaries.sort(Comparator.comparing(Summary::page)
+                .thenComparing(summary -> -summary.latency().meanMs()));
+        return summaries;
+    }
+
+    /**
+     * Returns a table of every locator's cost, headed by a row of column names.
+     */
+    public static String[][] summaryTable() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Page", "Locator", "Rewrite", "Lookups", "Mean ms", "p90 ms", "Max ms", "Rewritten",
+                "Fallbacks", "Not found", "Slow"});
+        summaries().forEach(s -> rows.add(new String[]{s.page(), s.locator(), s.rewrite() == null ? "-" : s.rewrite(),
+                String.valueOf(s.latency().count()), format(s.latency().meanMs()), format(s.latency().p90Ms()),
+                format(s.latency().maxMs()), String.valueOf(s.rewritten()), String.valueOf(s.fallbacks()),
+                String.valueOf(s.notFound()), s.slow() ? "yes" : ""}));
+        return rows.toArray(String[][]::new);
+    }
+
+    /**
+     * Logs the cost of every locator, one line per locator, with a warning for slow ones.
+     */
+    public static void logSummary() {
+        summaries().forEach(s -> {
+            String line = String.format(Locale.ROOT, "%s %s: %d lookups, mean %.1f ms, p90 %.1f ms%s",
+                    s.page(), s.locator(), s.latency().count(), s.latency().meanMs(), s.latency().p90Ms(),
+                    s.rewrite() == null ? "" : ", rewritten to " + s.rewrite() + " (" + s.fallbacks() + " fallbacks)");
+            if (s.slow()) {
+                log.warn("Slow locator: {}", line);
+            } else {
+                log.info("{}", line);
+            }
+        });
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+}
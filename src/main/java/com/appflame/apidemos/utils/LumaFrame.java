@@ -0,0 +1,96 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Compact 8-bit luminance plane of a (possibly cropped and subsampled) screenshot.
+ * <p>
+ * A full 1080x2424 ARGB frame needs ~10 MB of heap; its luminance at step 2 needs ~650 KB.
+ * Pixel (x, y) of the plane corresponds to pixel (originX + x * step, originY + y * step) of the
+ * original frame, so results can be mapped back to screen coordinates.
+ * <p>
+ * Planes are backed by buffers from {@link PixelBufferPool}; call {@link #release()} once a frame is no
+ * longer needed so the next decode can reuse its buffer.
+ *
+ * @param pixels  row-major luminance values, width * height bytes
+ * @param width   plane width
+ * @param height  plane height
+ * @param originX x of the top-left source pixel in the original frame
+ * @param originY y of the top-left source pixel in the original frame
+ * @param step    source subsampling step in both directions
+ */
+public record LumaFrame(byte[] pixels, int width, int height, int originX, int originY, int step) {
+
+    /**
+     * Decodes an encoded image (PNG, JPEG…) straight into a luminance plane, letting the ImageIO reader
+     * skip everything outside region and all but every step-th pixel.
+     *
+     * @param encoded the encoded image bytes
+     * @param step    subsampling step (1 = full resolution)
+     * @param region  the source region to decode, or null for the whole image
+     * @return the decoded LumaFrame
+     * @throws IOException if the bytes cannot be decoded
+     */
+    public static LumaFrame decode(byte[] encoded, int step, Rectangle region) throws IOException {
+        ImageDecoder.Decoded decoded = ImageDecoder.decode(encoded, step, region);
+        try {
+            return of(decoded.image(), decoded.source().x, decoded.source().y, step);
+        } finally {
+            PixelBufferPool.release(decoded.image());
+        }
+    }
+
+    /**
+     * Converts an already decoded image into a full-resolution luminance plane.
+     *
+     * @param image the image to convert
+     * @return the LumaFrame
+     */
+    public static LumaFrame of(BufferedImage image) {
+        return of(image, 0, 0, 1);
+    }
+
+    private static LumaFrame of(BufferedImage image, int originX, int originY, int step) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        RasterRows rows = RasterRows.of(image);
+        int[] scratch = PixelBufferPool.borrowInts(width);
+        byte[] pixels = PixelBufferPool.borrowBytes(width * height);
+
+        for (int y = 0; y < height; y++) {
+            int[] row = rows.row(y, scratch);
+            int offset = rows.offset(y);
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[offset + x];
+                // ITU-R BT.601 weights in 8.8 fixed point
+                pixels[out + x] = (byte) ((77 * ((rgb >> 16) & 0xFF) + 150 * ((rgb >> 8) & 0xFF) + 29 * (rgb & 0xFF)) >> 8);
+            }
+        }
+        PixelBufferPool.release(scratch);
+        return new LumaFrame(pixels, width, height, originX, originY, step);
+    }
+
+    /**
+     * Returns the plane’s pixels to {@link PixelBufferPool}. The frame must not be used afterwards.
+     */
+    public void release() {
+        PixelBufferPool.release(pixels);
+    }
+
+    /**
+     * Maps a plane x-coordinate back to the original frame.
+     */
+    public int toFrameX(int x) {
+        return originX + x * step;
+    }
+
+    /**
+     * Maps a plane y-coordinate back to the original frame.
+     */
+    public int toFrameY(int y) {
+        return originY + y * step;
+    }
+}
@@ -0,0 +1,71 @@
+package com.appflame.apidemos.utils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Incrementally splits an MJPEG stream into individual JPEG frames.
+ * <p>
+ * Frames are delimited by their SOI (FF D8) and EOI (FF D9) markers, so both raw concatenated JPEG files
+ * and multipart/x-mixed-replace HTTP streams (as served by the UiAutomator2 MJPEG server) are supported;
+ * multipart boundaries and headers between frames are skipped.
+ */
+public class MjpegFrameReader implements Closeable {
+    private static final int MARKER = 0xFF;
+    private static final int SOI = 0xD8;
+    private static final int EOI = 0xD9;
+
+    private final InputStream input;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(64 * 1024);
+
+    public MjpegFrameReader(InputStream input) {
+        this.input = new BufferedInputStream(input, 64 * 1024);
+    }
+
+    /**
+     * Blocks until the next complete JPEG frame has been read.
+     *
+     * @return the frame’s bytes, or null at end of stream
+     * @throws IOException if reading from the stream fails
+     */
+    public byte[] nextFrame() throws IOException {
+        if (!skipToStartOfImage()) {
+            return null;
+        }
+
+        frame.reset();
+        frame.write(MARKER);
+        frame.write(SOI);
+
+        int previous = -1;
+        int current;
+        while ((current = input.read()) != -1) {
+            frame.write(current);
+            if (previous == MARKER && current == EOI) {
+                return frame.toByteArray();
+            }
+            previous = current;
+        }
+        return null; // truncated last frame
+    }
+
+    private boolean skipToStartOfImage() throws IOException {
+        int previous = -1;
+        int current;
+        while ((current = input.read()) != -1) {
+            if (previous == MARKER && current == SOI) {
+                return true;
+            }
+            previous = current;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
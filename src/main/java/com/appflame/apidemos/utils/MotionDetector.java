@@ -0,0 +1,382 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Single-pass motion detection engine working directly on image rasters.
+ * <p>
+ * Each pixel pair is read once, straight from the underlying DataBufferInt / DataBufferByte where
+ * possible, and its R+G+B difference is folded into a {@link DiffHistogram}. The 50%-of-max dynamic
+ * threshold and the centroid are then resolved from the histogram, so the result is identical to the
+ * original two-pass getRGB implementation at a fraction of the cost.
+ * <p>
+ * The parallel variants split the frame into row stripes, build one partial histogram per stripe on a
+ * ForkJoinPool and merge them. Histogram buckets are plain integer sums, so the merged result is
+ * exactly the sequential one.
+ * <p>
+ * {@link #locateMotion(BufferedImage, BufferedImage, MotionMask)} works coarse-to-fine: it samples every
+ * {@value #COARSE_STEP}th pixel in both directions to find {@value #BLOCK_SIZE}px blocks that changed, grows
+ * that set by one block, and only diffs those blocks at full resolution.
+ */
+@Slf4j
+public class MotionDetector {
+    /**
+     * Frames with fewer pixels than this are always diffed sequentially, as fork/join overhead would dominate.
+     */
+    public static final int PARALLEL_THRESHOLD_PIXELS = 512 * 512;
+
+    /**
+     * Approximate number of pixels diffed by a single fork/join leaf task.
+     */
+    static final int STRIPE_PIXELS = 64 * 1024;
+
+    /**
+     * Sampling step of the coarse level used by locateMotion.
+     */
+    public static final int COARSE_STEP = 4;
+
+    /**
+     * Side of the square blocks that locateMotion refines at full resolution.
+     */
+    public static final int BLOCK_SIZE = 32;
+
+    private MotionDetector() {
+    }
+
+    /**
+     * Returns the X‐coordinate of the centroid of all pixels whose R+G+B difference is greater than
+     * half of the maximum difference between the two images, or –1 if no motion is detected.
+     *
+     * @param before the BufferedImage taken before the action
+     * @param after  the BufferedImage taken after the action
+     * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementX(BufferedImage before, BufferedImage after) {
+        int width = before.getWidth();
+        int height = before.getHeight();
+
+        if (after.getWidth() != width || after.getHeight() != height) {
+            throw new IllegalArgumentException("Before/After images must match dimensions");
+        }
+
+        return centroidXAndRelease(diffRows(RasterRows.of(before), RasterRows.of(after), 0, height));
+    }
+
+    /**
+     * Luminance counterpart of {@link #findMovementX(BufferedImage, BufferedImage)}: the diff is
+     * |luma2 – luma1| and the 50%-of-max threshold applies to it. The returned X is mapped back to the
+     * coordinates of the original frame.
+     *
+     * @param before the LumaFrame taken before the action
+     * @param after  the LumaFrame taken after the action
+     * @return the X‐coordinate (in frame pixels) of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementX(LumaFrame before, LumaFrame after) {
+        int width = before.width();
+        int height = before.height();
+
+        if (after.width() != width || after.height() != height
+                || after.step() != before.step() || after.originX() != before.originX()
+                || after.originY() != before.originY()) {
+            throw new IllegalArgumentException("Before/After luma frames must cover the same area");
+        }
+
+        DiffHistogram histogram = DiffHistogram.acquire();
+        for (int y = 0; y < height; y++) {
+            histogram.addLumaRow(before.pixels(), after.pixels(), y * width, width);
+        }
+
+        int centroidX = centroidXAndRelease(histogram);
+        return centroidX < 0 ? -1 : before.toFrameX(centroidX);
+    }
+
+    /**
+     * Luminance counterpart of {@link #locateMotion(BufferedImage, BufferedImage, MotionMask)}. Planes are
+     * already small, so every plane pixel is diffed. Bounds and centroids are mapped back to the
+     * coordinates of the original frame.
+     *
+     * @param before the LumaFrame taken before the action
+     * @param after  the LumaFrame taken after the action
+     * @return the MotionRegion in frame coordinates, or empty if nothing changed
+     */
+    public static Optional<MotionRegion> locateMotion(LumaFrame before, LumaFrame after) {
+        int width = before.width();
+        int height = before.height();
+
+        if (after.width() != width || after.height() != height
+                || after.step() != before.step() || after.originX() != before.originX()
+                || after.originY() != before.originY()) {
+            throw new IllegalArgumentException("Before/After luma frames must cover the same area");
+        }
+
+        RegionHistogram histogram = new RegionHistogram();
+        for (int y = 0; y < height; y++) {
+            histogram.addLumaSpan(before.pixels(), after.pixels(), y * width, 0, width, y);
+        }
+
+        return Optional.ofNullable(histogram.toRegion())
+                .map(region -> {
+                    Rectangle bounds = region.bounds();
+                    int step = before.step();
+                    var frameBounds = new Rectangle(before.toFrameX(bounds.x), before.toFrameY(bounds.y),
+                            bounds.width * step, bounds.height * step);
+                    return new MotionRegion(frameBounds, before.toFrameX(region.centroidX()),
+                            before.toFrameY(region.centroidY()), region.changedPixels());
+                });
+    }
+
+    /**
+     * Parallel variant of {@link #findMovementX(BufferedImage, BufferedImage)} running on the common ForkJoinPool.
+     *
+     * @param before the BufferedImage taken before the action
+     * @param after  the BufferedImage taken after the action
+     * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementXParallel(BufferedImage before, BufferedImage after) {
+        return findMovementXParallel(before, after, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel variant of {@link #findMovementX(BufferedImage, BufferedImage)} running on the given pool.
+     * Falls back to the sequential scan for frames smaller than {@link #PARALLEL_THRESHOLD_PIXELS}
+     * or when the pool has a parallelism of 1.
+     *
+     * @param before the BufferedImage taken before the action
+     * @param after  the BufferedImage taken after the action
+     * @param pool   the ForkJoinPool to run row stripes on
+     * @return the X‐coordinate of the centroid of “changed” pixels, or –1 if none found
+     */
+    public static int findMovementXParallel(BufferedImage before, BufferedImage after, ForkJoinPool pool) {
+        int width = before.getWidth();
+        int height = before.getHeight();
+
+        if (after.getWidth() != width || after.getHeight() != height) {
+            throw new IllegalArgumentException("Before/After images must match dimensions");
+        }
+
+        RasterRows beforeRows = RasterRows.of(before);
+        RasterRows afterRows = RasterRows.of(after);
+
+        if ((long) width * height < PARALLEL_THRESHOLD_PIXELS || pool.getParallelism() < 2) {
+            return centroidXAndRelease(diffRows(beforeRows, afterRows, 0, height));
+        }
+
+        int stripeRows = Math.max(1, STRIPE_PIXELS / width);
+        return centroidXAndRelease(pool.invoke(new StripeTask(beforeRows, afterRows, 0, height, stripeRows)));
+    }
+
+    /**
+     * Localises motion between two frames inside the given mask, returning its bounding box, X/Y centroid
+     * and changed-pixel count. The dynamic threshold is 50% of the maximum diff seen in the refined blocks,
+     * as in findMovementX.
+     * <p>
+     * Changes thinner than {@value #COARSE_STEP}px in both directions can slip between coarse samples;
+     * use findMovementX when every single pixel matters.
+     *
+     * @param before the BufferedImage taken before the action
+     * @param after  the BufferedImage taken after the action
+     * @param mask   the region of interest and excluded areas
+     * @return the MotionRegion, or empty if nothing changed inside the mask
+     */
+    public static Optional<MotionRegion> locateMotion(BufferedImage before, BufferedImage after, MotionMask mask) {
+        int width = before.getWidth();
+        int height = before.getHeight();
+
+        if (after.getWidth() != width || after.getHeight() != height) {
+            throw new IllegalArgumentException("Before/After images must match dimensions");
+        }
+
+        Rectangle roi = mask.clip(width, height);
+        if (roi.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RasterRows beforeRows = RasterRows.of(before);
+        RasterRows afterRows = RasterRows.of(after);
+
+        int blocksX = (roi.width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int blocksY = (roi.height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        boolean[] candidates = dilate(coarseCandidates(beforeRows, afterRows, roi, mask, blocksX), blocksX, blocksY);
+
+        int[] beforeScratch = PixelBufferPool.borrowInts(width);
+        int[] afterScratch = PixelBufferPool.borrowInts(width);
+        RegionHistogram histogram = new RegionHistogram();
+        long refinedPixels = 0;
+
+        for (int by = 0; by < blocksY; by++) {
+            int fromY = roi.y + by * BLOCK_SIZE;
+            int toY = Math.min(fromY + BLOCK_SIZE, roi.y + roi.height);
+
+            int bx = 0;
+            while (bx < blocksX) {
+                if (!candidates[by * blocksX + bx]) {
+                    bx++;
+                    continue;
+                }
+                int runStart = bx;
+                while (bx < blocksX && candidates[by * blocksX + bx]) {
+                    bx++;
+                }
+                int fromX = roi.x + runStart * BLOCK_SIZE;
+                int toX = Math.min(roi.x + bx * BLOCK_SIZE, roi.x + roi.width);
+                refinedPixels += (long) (toX - fromX) * (toY - fromY);
+
+                for (int y = fromY; y < toY; y++) {
+                    int[] beforeRow = beforeRows.row(y, fromX, toX, beforeScratch);
+                    int[] afterRow = afterRows.row(y, fromX, toX, afterScratch);
+                    addUnmaskedSpan(histogram, beforeRow, beforeRows.offset(y), afterRow, afterRows.offset(y),
+                            fromX, toX, y, mask.exclusions(), 0);
+                }
+            }
+        }
+
+        PixelBufferPool.release(beforeScratch);
+        PixelBufferPool.release(afterScratch);
+
+        long sampledPixels = (long) ((roi.width + COARSE_STEP - 1) / COARSE_STEP)
+                * ((roi.height + COARSE_STEP - 1) / COARSE_STEP);
+        log.debug("locateMotion touched {} of {} pixels ({} coarse, {} refined)",
+                sampledPixels + refinedPixels, (long) width * height, sampledPixels, refinedPixels);
+
+        return Optional.ofNullable(histogram.toRegion());
+    }
+
+    /**
+     * Samples the region of interest on a {@value #COARSE_STEP}px grid and marks every block holding
+     * at least one changed, non-excluded sample.
+     */
+    private static boolean[] coarseCandidates(RasterRows before, RasterRows after, Rectangle roi,
+                                              MotionMask mask, int blocksX) {
+        int blocksY = (roi.height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        boolean[] candidates = new boolean[blocksX * blocksY];
+        boolean masked = !mask.exclusions().isEmpty();
+
+        for (int y = roi.y + COARSE_STEP / 2; y < roi.y + roi.height; y += COARSE_STEP) {
+            int blockRow = (y - roi.y) / BLOCK_SIZE * blocksX;
+            for (int x = roi.x + COARSE_STEP / 2; x < roi.x + roi.width; x += COARSE_STEP) {
+                if (((before.pixel(x, y) ^ after.pixel(x, y)) & 0xFFFFFF) != 0
+                        && !(masked && mask.isExcluded(x, y))) {
+                    candidates[blockRow + (x - roi.x) / BLOCK_SIZE] = true;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Grows the candidate set by one block in every direction, so edges of a changed area that fell
+     * between coarse samples are still refined.
+     */
+    private static boolean[] dilate(boolean[] candidates, int blocksX, int blocksY) {
+        boolean[] grown = new boolean[candidates.length];
+        for (int by = 0; by < blocksY; by++) {
+            for (int bx = 0; bx < blocksX; bx++) {
+                if (!candidates[by * blocksX + bx]) {
+                    continue;
+                }
+                for (int ny = Math.max(0, by - 1); ny <= Math.min(blocksY - 1, by + 1); ny++) {
+                    for (int nx = Math.max(0, bx - 1); nx <= Math.min(blocksX - 1, bx + 1); nx++) {
+                        grown[ny * blocksX + nx] = true;
+                    }
+                }
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Adds the span [fromX, toX) of row y to the histogram, skipping any part covered by the
+     * exclusions from index {@code next} onward.
+     */
+    private static void addUnmaskedSpan(RegionHistogram histogram, int[] before, int beforeOff, int[] after,
+                                        int afterOff, int fromX, int toX, int y, List<Rectangle> exclusions,
+                                        int next) {
+        for (int i = next; i < exclusions.size(); i++) {
+            Rectangle area = exclusions.get(i);
+            if (y < area.y || y >= area.y + area.height
+                    || area.x + area.width <= fromX || area.x >= toX) {
+                continue;
+            }
+            if (area.x > fromX) {
+                addUnmaskedSpan(histogram, before, beforeOff, after, afterOff, fromX, area.x, y, exclusions, i + 1);
+            }
+            if (area.x + area.width < toX) {
+                addUnmaskedSpan(histogram, before, beforeOff, after, afterOff, area.x + area.width, toX, y,
+                        exclusions, i + 1);
+            }
+            return;
+        }
+        histogram.addSpan(before, beforeOff, after, afterOff, fromX, toX, y);
+    }
+
+    /**
+     * Builds the diff histogram for rows [fromY, toY) of two equally sized images.
+     * The returned histogram must be released by the caller.
+     */
+    static DiffHistogram diffRows(RasterRows before, RasterRows after, int fromY, int toY) {
+        int width = before.width;
+        int[] beforeScratch = PixelBufferPool.borrowInts(width);
+        int[] afterScratch = PixelBufferPool.borrowInts(width);
+
+        DiffHistogram histogram = DiffHistogram.acquire();
+        for (int y = fromY; y < toY; y++) {
+            int[] beforeRow = before.row(y, beforeScratch);
+            int[] afterRow = after.row(y, afterScratch);
+            histogram.addRow(beforeRow, before.offset(y), afterRow, after.offset(y), width);
+        }
+
+        PixelBufferPool.release(beforeScratch);
+        PixelBufferPool.release(afterScratch);
+        return histogram;
+    }
+
+    private static int centroidXAndRelease(DiffHistogram histogram) {
+        try {
+            return histogram.centroidX();
+        } finally {
+            histogram.release();
+        }
+    }
+
+    /**
+     * Recursively halves a row range until it fits in one stripe, then diffs it and merges the halves.
+     */
+    private static final class StripeTask extends RecursiveTask<DiffHistogram> {
+        private final RasterRows before;
+        private final RasterRows after;
+        private final int fromY;
+        private final int toY;
+        private final int stripeRows;
+
+        private StripeTask(RasterRows before, RasterRows after, int fromY, int toY, int stripeRows) {
+            this.before = before;
+            this.after = after;
+            this.fromY = fromY;
+            this.toY = toY;
+            this.stripeRows = stripeRows;
+        }
+
+        @Override
+        protected DiffHistogram compute() {
+            if (toY - fromY <= stripeRows) {
+                return diffRows(before, after, fromY, toY);
+            }
+
+            int middle = (fromY + toY) >>> 1;
+            var top = new StripeTask(before, after, fromY, middle, stripeRows);
+            var bottom = new StripeTask(before, after, middle, toY, stripeRows);
+            top.fork();
+            DiffHistogram bottomHistogram = bottom.compute();
+            DiffHistogram merged = top.join().merge(bottomHistogram);
+            bottomHistogram.release();
+            return merged;
+        }
+    }
+}
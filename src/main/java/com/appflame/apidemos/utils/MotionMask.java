@@ -0,0 +1,81 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable description of which part of a frame motion localisation should look at:
+ * an optional region of interest and any number of excluded rectangles (e.g. status bar, nav bar).
+ */
+public class MotionMask {
+    private static final MotionMask FULL_FRAME = new MotionMask(null, List.of());
+
+    private final Rectangle regionOfInterest;
+    private final List<Rectangle> exclusions;
+
+    private MotionMask(Rectangle regionOfInterest, List<Rectangle> exclusions) {
+        this.regionOfInterest = regionOfInterest;
+        this.exclusions = exclusions;
+    }
+
+    /**
+     * Returns a mask that covers the whole frame with no exclusions.
+     */
+    public static MotionMask fullFrame() {
+        return FULL_FRAME;
+    }
+
+    /**
+     * Returns a copy of this mask restricted to the given region of interest.
+     *
+     * @param region the only area of the frame to analyse
+     * @return a new MotionMask
+     */
+    public MotionMask withRegionOfInterest(Rectangle region) {
+        return new MotionMask(new Rectangle(region), exclusions);
+    }
+
+    /**
+     * Returns a copy of this mask that additionally ignores the given area.
+     *
+     * @param area the area of the frame to ignore
+     * @return a new MotionMask
+     */
+    public MotionMask excluding(Rectangle area) {
+        if (area.isEmpty()) {
+            return this;
+        }
+        List<Rectangle> copy = new ArrayList<>(exclusions);
+        copy.add(new Rectangle(area));
+        return new MotionMask(regionOfInterest, Collections.unmodifiableList(copy));
+    }
+
+    /**
+     * Returns the region of interest clipped to a frame of the given size.
+     */
+    Rectangle clip(int width, int height) {
+        Rectangle frame = new Rectangle(0, 0, width, height);
+        return regionOfInterest == null ? frame : frame.intersection(regionOfInterest);
+    }
+
+    /**
+     * Returns the excluded areas.
+     */
+    List<Rectangle> exclusions() {
+        return exclusions;
+    }
+
+    /**
+     * Returns whether the pixel at (x, y) falls into one of the excluded areas.
+     */
+    boolean isExcluded(int x, int y) {
+        for (Rectangle area : exclusions) {
+            if (area.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.Rectangle;
+
+/**
+ * Result of localising motion between two frames.
+ *
+ * @param bounds        the bounding box of all pixels whose diff exceeded the dynamic threshold
+ * @param centroidX     the X‐coordinate of the centroid of those pixels
+ * @param centroidY     the Y‐coordinate of the centroid of those pixels
+ * @param changedPixels the number of pixels whose diff exceeded the dynamic threshold
+ */
+public record MotionRegion(Rectangle bounds, int centroidX, int centroidY, int changedPixels) {
+}
@@ -0,0 +1,177 @@
+package com.appflame.apidemos.utils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.Rectangle;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming (StAX) extraction of data from a UiAutomator2 page source, so a page can read what would
+ * otherwise take one round trip per element from a single “getPageSource” call.
+ * <p>
+ * In the page source every node is an element named after its widget class, carrying the widget's
+ * “class”, “resource-id”, “text” and other properties as attributes.
+ */
+public class PageSourceParser {
+    private static final Pattern BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)]\\[(-?\\d+),(-?\\d+)]");
+    // The JDK factory reuses its last reader, so it must not be shared between threads
+    private static final ThreadLocal<XMLInputFactory> FACTORY =
+            ThreadLocal.withInitial(PageSourceParser::createFactory);
+
+    private PageSourceParser() {
+    }
+
+    /**
+     * The rows of a list container as found in one page source.
+     *
+     * @param bounds    the container's on-screen bounds, null if the container is not on screen
+     * @param texts     the rows' texts, in document order
+     * @param rowBottom the lowest bottom edge of any row, or Integer.MIN_VALUE if no row has bounds
+     * @param rowHeight the height of the shortest row, or Integer.MAX_VALUE if no row has bounds
+     */
+    public record ListRows(Rectangle bounds, List<String> texts, int rowBottom, int rowHeight) {
+
+        /**
+         * Returns whether there is room for another row below the last one, i.e. the whole list is on screen.
+         * Rows partly scrolled out of view are clipped to the container, so a list that continues off screen
+         * has no such room.
+         */
+        public boolean endsOnScreen() {
+            return bounds != null && rowBottom != Integer.MIN_VALUE
+                    && bounds.y + bounds.height - rowBottom >= rowHeight;
+        }
+    }
+
+    /**
+     * Returns the text of every node of the given class below the first node with the given resource id,
+     * in document order. This is what “//*[@resource-id='containerId']//rowClass” followed by getText()
+     * on every match would return.
+     *
+     * @param pageSource  the page source XML
+     * @param containerId the container's resource id, e.g. “android:id/list”
+     * @param rowClass    the class of the nodes to read, e.g. “android.widget.TextView”
+     * @return the texts, empty if the container is not on screen
+     */
+    public static List<String> textsUnder(String pageSource, String containerId, String rowClass) {
+        return listRows(pageSource, containerId, rowClass).texts();
+    }
+
+    /**
+     * Like {@link #textsUnder(String, String, String)}, also returning the container's bounds.
+     *
+     * @param pageSource  the page source XML
+     * @param containerId the container's resource id
+     * @param rowClass    the class of the nodes to read
+     * @return the container's bounds and row texts
+     */
+    public static ListRows listRows(String pageSource, String containerId, String rowClass) {
+        var texts = new ArrayList<String>();
+        Rectangle bounds = null;
+        int rowBottom = Integer.MIN_VALUE;
+        int rowHeight = Integer.MAX_VALUE;
+        try {
+            XMLStreamReader reader = FACTORY.get().createXMLStreamReader(new StringReader(pageSource));
+            try {
+                int depth = 0; // depth inside the container, 0 while outside it
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        if (depth > 0) {
+                            depth++;
+                            if (rowClass.equals(className(reader))) {
+                                String text = reader.getAttributeValue(null, "text");
+                                texts.add(text == null ? "" : text);
+                                Rectangle rowBounds = parseBounds(reader.getAttributeValue(null, "bounds"));
+                                if (rowBounds != null) {
+                                    rowBottom = Math.max(rowBottom, rowBounds.y + rowBounds.height);
+                                    rowHeight = Math.min(rowHeight, rowBounds.height);
+                                }
+                            }
+                        } else if (containerId.equals(reader.getAttributeValue(null, "resource-id"))) {
+                            depth = 1;
+                            bounds = parseBounds(reader.getAttributeValue(null, "bounds"));
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && depth > 0 && --depth == 0) {
+                        break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not parse the page source", e);
+        }
+        return new ListRows(bounds, texts, rowBottom, rowHeight);
+    }
+
+    /**
+     * Returns every node of the page source, in document order.
+     *
+     * @param pageSource the page source XML
+     * @return the nodes below the root “hierarchy” element
+     */
+    public static List<UiNode> nodes(String pageSource) {
+        var nodes = new ArrayList<UiNode>();
+        try {
+            XMLStreamReader reader = FACTORY.get().createXMLStreamReader(new StringReader(pageSource));
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && !"hierarchy".equals(reader.getLocalName())) {
+                        nodes.add(new UiNode(className(reader), attribute(reader, "resource-id"),
+                                attribute(reader, "content-desc"), attribute(reader, "text"),
+                                flag(reader, "checked"), flag(reader, "enabled"), flag(reader, "displayed"),
+                                flag(reader, "selected"), parseBounds(reader.getAttributeValue(null, "bounds"))));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not parse the page source", e);
+        }
+        return nodes;
+    }
+
+    /**
+     * Parses UiAutomator2 bounds, “[left,top][right,bottom]”.
+     *
+     * @return the bounds, or null if the value is missing or malformed
+     */
+    static Rectangle parseBounds(String bounds) {
+        Matcher m = bounds == null ? null : BOUNDS.matcher(bounds);
+        if (m == null || !m.matches()) {
+            return null;
+        }
+        int left = Integer.parseInt(m.group(1));
+        int top = Integer.parseInt(m.group(2));
+        return new Rectangle(left, top, Integer.parseInt(m.group(3)) - left, Integer.parseInt(m.group(4)) - top);
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    private static boolean flag(XMLStreamReader reader, String name) {
+        return Boolean.parseBoolean(reader.getAttributeValue(null, name));
+    }
+
+    private static String className(XMLStreamReader reader) {
+        String className = reader.getAttributeValue(null, "class");
+        return className != null ? className : reader.getLocalName();
+    }
+
+    private static XMLInputFactory createFactory() {
+        var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,122 @@
+package com.appflame.apidemos.utils;
+
+import javax.imageio.ImageTypeSpecifier;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe pool of pixel buffers (decoded images, row buffers, luminance planes), keyed by size.
+ * <p>
+ * Decoding and diffing in {@link ImageUtils} borrow from this pool and give buffers back once done,
+ * so a steady-state capture-and-compare loop reuses the same few megabytes instead of allocating a
+ * fresh 10 MB raster per frame. At most {@value #MAX_IDLE_PER_SIZE} idle buffers are kept per size;
+ * anything beyond that is simply left to the garbage collector.
+ * <p>
+ * Releasing is optional: a buffer that is never released is collected as usual. A released buffer
+ * must not be used again by the caller.
+ */
+public class PixelBufferPool {
+    public static final int MAX_IDLE_PER_SIZE = 4;
+
+    private static final Map<Object, IdleBuffers> IDLE = new ConcurrentHashMap<>();
+
+    private PixelBufferPool() {
+    }
+
+    /**
+     * Borrows an int[] of exactly the given length. Contents are unspecified.
+     */
+    public static int[] borrowInts(int length) {
+        int[] buffer = (int[]) poll(new ArrayKey(int[].class, length));
+        return buffer != null ? buffer : new int[length];
+    }
+
+    /**
+     * Returns an int[] obtained from {@link #borrowInts(int)} to the pool.
+     */
+    public static void release(int[] buffer) {
+        offer(new ArrayKey(int[].class, buffer.length), buffer);
+    }
+
+    /**
+     * Borrows a byte[] of exactly the given length. Contents are unspecified.
+     */
+    public static byte[] borrowBytes(int length) {
+        byte[] buffer = (byte[]) poll(new ArrayKey(byte[].class, length));
+        return buffer != null ? buffer : new byte[length];
+    }
+
+    /**
+     * Returns a byte[] obtained from {@link #borrowBytes(int)} to the pool.
+     */
+    public static void release(byte[] buffer) {
+        offer(new ArrayKey(byte[].class, buffer.length), buffer);
+    }
+
+    /**
+     * Borrows a BufferedImage of the given type and size, e.g. to be used as an ImageReadParam destination.
+     * Contents are unspecified.
+     *
+     * @param type   the image layout, typically the first of ImageReader.getImageTypes
+     * @param width  image width
+     * @param height image height
+     * @return a pooled or newly created image
+     */
+    public static BufferedImage borrowImage(ImageTypeSpecifier type, int width, int height) {
+        BufferedImage image = (BufferedImage) poll(new ImageKey(type.getColorModel(), type.getNumBands(), width, height));
+        return image != null ? image : type.createBufferedImage(width, height);
+    }
+
+    /**
+     * Returns an image to the pool so later decodes of the same layout and size can reuse its raster.
+     * Images that view part of another image's raster, such as {@link ImageUtils#crop crops}, are ignored:
+     * a later decode into one would overwrite the other image's pixels.
+     */
+    public static void release(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        if (raster.getParent() != null
+                || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+            return;
+        }
+        offer(new ImageKey(image.getColorModel(), raster.getNumBands(), image.getWidth(), image.getHeight()),
+                image);
+    }
+
+    private static Object poll(Object key) {
+        IdleBuffers idle = IDLE.get(key);
+        if (idle == null) {
+            return null;
+        }
+        Object buffer = idle.buffers.poll();
+        if (buffer != null) {
+            idle.size.decrementAndGet();
+        }
+        return buffer;
+    }
+
+    private static void offer(Object key, Object buffer) {
+        IdleBuffers idle = IDLE.computeIfAbsent(key, k -> new IdleBuffers());
+        if (idle.size.incrementAndGet() > MAX_IDLE_PER_SIZE) {
+            idle.size.decrementAndGet();
+            return;
+        }
+        idle.buffers.offer(buffer);
+    }
+
+    private static final class IdleBuffers {
+        private final Queue<Object> buffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private record ArrayKey(Class<?> type, int length) {
+    }
+
+    private record ImageKey(ColorModel colorModel, int bands, int width, int height) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Row-oriented view over the pixels of a BufferedImage, exposing each row as packed 0x??RRGGBB ints
+ * (the top byte is unspecified and must be masked off by callers).
+ * <p>
+ * Images backed by a DataBufferInt in (A)RGB order are read in place. Interleaved 8-bit sRGB images
+ * (the layouts ImageIO produces for PNG screenshots) are unpacked straight from their DataBufferByte.
+ * Anything else falls back to a bulk {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}
+ * per row, which is still far cheaper than one ColorModel conversion per pixel.
+ */
+abstract class RasterRows {
+    protected final int width;
+    protected final int height;
+
+    private RasterRows(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Creates the fastest available row reader for the given image.
+     *
+     * @param image the image to read
+     * @return a RasterRows instance bound to the image’s current pixel data
+     */
+    static RasterRows of(BufferedImage image) {
+        Raster raster = image.getRaster();
+        ColorModel colorModel = image.getColorModel();
+        SampleModel sampleModel = raster.getSampleModel();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+
+        boolean plainSrgb = colorModel.getColorSpace().isCS_sRGB() && !colorModel.isAlphaPremultiplied();
+
+        if (plainSrgb
+                && dataBuffer instanceof DataBufferInt ints
+                && dataBuffer.getNumBanks() == 1
+                && sampleModel instanceof SinglePixelPackedSampleModel packed
+                && colorModel instanceof DirectColorModel direct
+                && direct.getRedMask() == 0xFF0000
+                && direct.getGreenMask() == 0xFF00
+                && direct.getBlueMask() == 0xFF) {
+            int offset = ints.getOffset() + packed.getOffset(
+                    -raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+            return new IntRows(image.getWidth(), image.getHeight(), ints.getData(), offset, packed.getScanlineStride());
+        }
+
+        if (plainSrgb
+                && dataBuffer instanceof DataBufferByte bytes
+                && dataBuffer.getNumBanks() == 1
+                && sampleModel instanceof ComponentSampleModel component
+                && component.getNumBands() >= 3
+                && colorModel.getComponentSize(0) == 8
+                && colorModel.getComponentSize(1) == 8
+                && colorModel.getComponentSize(2) == 8) {
+            int[] bandOffsets = component.getBandOffsets();
+            int base = bytes.getOffset()
+                    - raster.getSampleModelTranslateY() * component.getScanlineStride()
+                    - raster.getSampleModelTranslateX() * component.getPixelStride();
+            return new ByteRows(image.getWidth(), image.getHeight(), bytes.getData(), base,
+                    component.getScanlineStride(), component.getPixelStride(),
+                    bandOffsets[0], bandOffsets[1], bandOffsets[2]);
+        }
+
+        return new FallbackRows(image);
+    }
+
+    /**
+     * Returns the array holding row y. The row starts at {@link #offset(int)} and spans width ints.
+     * Implementations that cannot read in place copy the row into scratch and return it.
+     *
+     * @param y       the row index
+     * @param scratch a caller-owned buffer of at least width ints
+     * @return either the image’s backing array or scratch
+     */
+    int[] row(int y, int[] scratch) {
+        return row(y, 0, width, scratch);
+    }
+
+    /**
+     * Same as {@link #row(int, int[])}, but only pixels in [fromX, toX) are guaranteed to be valid.
+     * Pixel x is always found at index offset(y) + x of the returned array.
+     *
+     * @param y       the row index
+     * @param fromX   the first column to read (inclusive)
+     * @param toX     the last column to read (exclusive)
+     * @param scratch a caller-owned buffer of at least width ints
+     * @return either the image’s backing array or scratch
+     */
+    abstract int[] row(int y, int fromX, int toX, int[] scratch);
+
+    /**
+     * Reads a single pixel as a packed RGB int.
+     *
+     * @param x the column
+     * @param y the row
+     * @return the pixel value, top byte unspecified
+     */
+    abstract int pixel(int x, int y);
+
+    /**
+     * Returns the index of the first pixel of row y inside the array last returned by {@link #row(int, int[])}.
+     *
+     * @param y the row index
+     * @return the start offset of the row
+     */
+    abstract int offset(int y);
+
+    /**
+     * Reads packed ints in place from a DataBufferInt.
+     */
+    private static final class IntRows extends RasterRows {
+        private final int[] data;
+        private final int base;
+        private final int stride;
+
+        private IntRows(int width, int height, int[] data, int base, int stride) {
+            super(width, height);
+            this.data = data;
+            this.base = base;
+            this.stride = stride;
+        }
+
+        @Override
+        int[] row(int y, int fromX, int toX, int[] scratch) {
+            return data;
+        }
+
+        @Override
+        int pixel(int x, int y) {
+            return data[base + y * stride + x];
+        }
+
+        @Override
+        int offset(int y) {
+            return base + y * stride;
+        }
+    }
+
+    /**
+     * Unpacks interleaved 8-bit R, G and B samples from a DataBufferByte.
+     */
+    private static final class ByteRows extends RasterRows {
+        private final byte[] data;
+        private final int base;
+        private final int stride;
+        private final int pixelStride;
+        private final int red;
+        private final int green;
+        private final int blue;
+
+        private ByteRows(int width, int height, byte[] data, int base, int stride, int pixelStride,
+                         int red, int green, int blue) {
+            super(width, height);
+            this.data = data;
+            this.base = base;
+            this.stride = stride;
+            this.pixelStride = pixelStride;
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+        }
+
+        @Override
+        int[] row(int y, int fromX, int toX, int[] scratch) {
+            int i = base + y * stride + fromX * pixelStride;
+            for (int x = fromX; x < toX; x++, i += pixelStride) {
+                scratch[x] = (data[i + red] & 0xFF) << 16
+                        | (data[i + green] & 0xFF) << 8
+                        | (data[i + blue] & 0xFF);
+            }
+            return scratch;
+        }
+
+        @Override
+        int pixel(int x, int y) {
+            int i = base + y * stride + x * pixelStride;
+            return (data[i + red] & 0xFF) << 16
+                    | (data[i + green] & 0xFF) << 8
+                    | (data[i + blue] & 0xFF);
+        }
+
+        @Override
+        int offset(int y) {
+            return 0;
+        }
+    }
+
+    /**
+     * Generic path through the image’s ColorModel, one row at a time.
+     */
+    private static final class FallbackRows extends RasterRows {
+        private final BufferedImage image;
+
+        private FallbackRows(BufferedImage image) {
+            super(image.getWidth(), image.getHeight());
+            this.image = image;
+        }
+
+        @Override
+        int[] row(int y, int fromX, int toX, int[] scratch) {
+            return image.getRGB(fromX, y, toX - fromX, 1, scratch, fromX, width);
+        }
+
+        @Override
+        int pixel(int x, int y) {
+            return image.getRGB(x, y);
+        }
+
+        @Override
+        int offset(int y) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Two-dimensional counterpart of {@link DiffHistogram}: besides counts and x sums, each diff bucket keeps
+ * the y sum and the bounding box of the pixels it holds, so centroid X/Y and the bounding box of all
+ * pixels above the dynamic threshold can be resolved after a single scan.
+ */
+final class RegionHistogram {
+    private static final int BINS = DiffHistogram.BINS;
+
+    private final int[] counts = new int[BINS];
+    private final long[] sumX = new long[BINS];
+    private final long[] sumY = new long[BINS];
+    private final int[] minX = new int[BINS];
+    private final int[] minY = new int[BINS];
+    private final int[] maxX = new int[BINS];
+    private final int[] maxY = new int[BINS];
+
+    RegionHistogram() {
+        Arrays.fill(minX, Integer.MAX_VALUE);
+        Arrays.fill(minY, Integer.MAX_VALUE);
+        Arrays.fill(maxX, -1);
+        Arrays.fill(maxY, -1);
+    }
+
+    /**
+     * Records every pixel in [fromX, toX) of row y whose R+G+B difference is non-zero.
+     * Pixel x is read from index offset + x of each array.
+     */
+    void addSpan(int[] before, int beforeOff, int[] after, int afterOff, int fromX, int toX, int y) {
+        for (int x = fromX; x < toX; x++) {
+            int rgb1 = before[beforeOff + x];
+            int rgb2 = after[afterOff + x];
+            if (((rgb1 ^ rgb2) & 0xFFFFFF) == 0) {
+                continue;
+            }
+
+            int diff = Math.abs(((rgb2 >> 16) & 0xFF) - ((rgb1 >> 16) & 0xFF))
+                    + Math.abs(((rgb2 >> 8) & 0xFF) - ((rgb1 >> 8) & 0xFF))
+                    + Math.abs((rgb2 & 0xFF) - (rgb1 & 0xFF));
+            counts[diff]++;
+            sumX[diff] += x;
+            sumY[diff] += y;
+            if (x < minX[diff]) minX[diff] = x;
+            if (x > maxX[diff]) maxX[diff] = x;
+            if (y < minY[diff]) minY[diff] = y;
+            if (y > maxY[diff]) maxY[diff] = y;
+        }
+    }
+
+    /**
+     * Records every pixel in [fromX, toX) of luminance row y whose value changed.
+     * Pixel x is read from index offset + x of each plane.
+     */
+    void addLumaSpan(byte[] before, byte[] after, int offset, int fromX, int toX, int y) {
+        for (int x = fromX; x < toX; x++) {
+            int diff = Math.abs((after[offset + x] & 0xFF) - (before[offset + x] & 0xFF));
+            if (diff == 0) {
+                continue;
+            }
+
+            counts[diff]++;
+            sumX[diff] += x;
+            sumY[diff] += y;
+            if (x < minX[diff]) minX[diff] = x;
+            if (x > maxX[diff]) maxX[diff] = x;
+            if (y < minY[diff]) minY[diff] = y;
+            if (y > maxY[diff]) maxY[diff] = y;
+        }
+    }
+
+    /**
+     * Resolves the region formed by all pixels whose diff is strictly greater than maxDiff / 2.
+     *
+     * @return the MotionRegion, or null if no pixel changed
+     */
+    MotionRegion toRegion() {
+        int maxDiff = 0;
+        for (int d = BINS - 1; d > 0; d--) {
+            if (counts[d] != 0) {
+                maxDiff = d;
+                break;
+            }
+        }
+        if (maxDiff == 0) {
+            return null;
+        }
+
+        long totalX = 0;
+        long totalY = 0;
+        int count = 0;
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = -1;
+        int bottom = -1;
+        for (int d = maxDiff / 2 + 1; d <= maxDiff; d++) {
+            if (counts[d] == 0) {
+                continue;
+            }
+            totalX += sumX[d];
+            totalY += sumY[d];
+            count += counts[d];
+            left = Math.min(left, minX[d]);
+            top = Math.min(top, minY[d]);
+            right = Math.max(right, maxX[d]);
+            bottom = Math.max(bottom, maxY[d]);
+        }
+
+        var bounds = new Rectangle(left, top, right - left + 1, bottom - top + 1);
+        return new MotionRegion(bounds, (int) (totalX / count), (int) (totalY / count), count);
+    }
+}
@@ -0,0 +1,35 @@
+package com.appflame.apidemos.utils;
+
+/**
+ * Portable scalar implementation of {@link DiffKernel}.
+ */
+final class ScalarDiffKernel implements DiffKernel {
+
+    @Override
+    public void addRow(DiffHistogram histogram, int[] before, int beforeOff, int[] after, int afterOff, int width) {
+        addRange(histogram, before, beforeOff, after, afterOff, 0, width);
+    }
+
+    /**
+     * Records the changed pixels in [fromX, toX) of a row. Also used for the tail of vectorised rows.
+     */
+    static void addRange(DiffHistogram histogram, int[] before, int beforeOff, int[] after, int afterOff,
+                         int fromX, int toX) {
+        int[] counts = histogram.counts;
+        long[] sumX = histogram.sumX;
+
+        for (int x = fromX; x < toX; x++) {
+            int rgb1 = before[beforeOff + x];
+            int rgb2 = after[afterOff + x];
+            if (((rgb1 ^ rgb2) & 0xFFFFFF) == 0) {
+                continue;
+            }
+
+            int diff = Math.abs(((rgb2 >> 16) & 0xFF) - ((rgb1 >> 16) & 0xFF))
+                    + Math.abs(((rgb2 >> 8) & 0xFF) - ((rgb1 >> 8) & 0xFF))
+                    + Math.abs((rgb2 & 0xFF) - (rgb1 & 0xFF));
+            counts[diff]++;
+            sumX[diff] += x;
+        }
+    }
+}
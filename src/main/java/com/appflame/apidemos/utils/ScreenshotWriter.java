@@ -0,0 +1,78 @@
+package com.appflame.apidemos.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded background writer that persists screenshot bytes to disk off the test thread.
+ * <p>
+ * At most {@value #MAX_PENDING_WRITES} writes may be pending at once; further calls to
+ * {@link #write(Path, byte[])} block until the writer catches up, so a burst of captures cannot
+ * pile up unbounded PNG buffers in memory. {@link #flush()} waits for every pending write and is
+ * called at the end of the suite (and from a shutdown hook as a safety net).
+ */
+@Slf4j
+public class ScreenshotWriter {
+    public static final int MAX_PENDING_WRITES = 8;
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_PENDING_WRITES);
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotWriter::flush, "screenshot-writer-flush"));
+    }
+
+    private ScreenshotWriter() {
+    }
+
+    /**
+     * Queues the given bytes to be written to destination, creating parent directories as needed.
+     * Blocks while {@value #MAX_PENDING_WRITES} writes are already pending.
+     *
+     * @param destination the file to write
+     * @param bytes       the content; must not be modified by the caller afterwards
+     */
+    public static void write(Path destination, byte[] bytes) {
+        try {
+            PERMITS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to queue screenshot " + destination, e);
+        }
+
+        WRITER.execute(() -> {
+            try {
+                Files.createDirectories(destination.getParent());
+                Files.write(destination, bytes);
+                log.info("Screenshot saved to: {}", destination.toAbsolutePath());
+            } catch (IOException e) {
+                log.warn("Failed to save screenshot to {}: {}", destination, e.getMessage());
+            } finally {
+                PERMITS.release();
+            }
+        });
+    }
+
+    /**
+     * Blocks until every queued screenshot has been written.
+     */
+    public static void flush() {
+        try {
+            PERMITS.acquire(MAX_PENDING_WRITES);
+            PERMITS.release(MAX_PENDING_WRITES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while flushing pending screenshots");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.appflame.apidemos.utils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-frame motion samples produced by {@link FrameStreamTracker}.
+ *
+ * @param samples           one sample per analysed frame, in stream order; the first frame has no sample
+ *                          since it has nothing to be compared with
+ * @param actionTimestampMs time of the action whose effect is tracked (e.g. a swipe), on the same clock as the
+ *                          samples, or null if no action was marked
+ */
+public record Trajectory(List<Sample> samples, Long actionTimestampMs) {
+
+    /**
+     * A trajectory with no action marked.
+     */
+    public Trajectory(List<Sample> samples) {
+        this(samples, null);
+    }
+
+    /**
+     * Motion between one frame and the frame before it.
+     *
+     * @param frameIndex    index of the frame in the stream (0-based)
+     * @param timestampMs   time of the frame relative to the first frame, in milliseconds
+     * @param region        where the change happened, in screen coordinates, or null if the frame was identical
+     */
+    public record Sample(int frameIndex, long timestampMs, MotionRegion region) {
+
+        /**
+         * Returns whether any motion was detected in this frame.
+         */
+        public boolean hasMotion() {
+            return region != null;
+        }
+    }
+
+    /**
+     * Returns only the samples in which motion was detected.
+     */
+    public List<Sample> motionSamples() {
+        return samples.stream()
+                .filter(Sample::hasMotion)
+                .toList();
+    }
+
+    /**
+     * Returns a copy with the action marked at the given time, e.g. for a recorded stream whose action time is
+     * known from the recording.
+     *
+     * @param timestampMs time of the action relative to the first frame, in milliseconds
+     */
+    public Trajectory withActionAt(long timestampMs) {
+        return new Trajectory(samples, timestampMs);
+    }
+
+    /**
+     * Returns how quickly the screen started moving after the action: the time from the marked action to the
+     * first frame at or after it showing motion. Without a marked action, it is measured from the first frame
+     * of the stream.
+     */
+    public Optional<Duration> timeToFirstMotion() {
+        long from = actionTimestampMs != null ? actionTimestampMs : 0;
+        return samples.stream()
+                .filter(Sample::hasMotion)
+                .filter(sample -> sample.timestampMs() >= from)
+                .findFirst()
+                .map(sample -> Duration.ofMillis(sample.timestampMs() - from));
+    }
+}
@@ -0,0 +1,20 @@
+package com.appflame.apidemos.utils;
+
+import java.awt.Rectangle;
+
+/**
+ * One node of a UiAutomator2 page source, with the properties page objects read.
+ *
+ * @param className   the widget class, e.g. “android.widget.CheckBox”
+ * @param resourceId  the resource id, empty if none
+ * @param contentDesc the content description (accessibility id), empty if none
+ * @param text        the text, empty if none
+ * @param checked     whether the node is checked
+ * @param enabled     whether the node is enabled
+ * @param displayed   whether the node is displayed
+ * @param selected    whether the node is selected
+ * @param bounds      the on-screen bounds, null if the source has none
+ */
+public record UiNode(String className, String resourceId, String contentDesc, String text, boolean checked,
+                     boolean enabled, boolean displayed, boolean selected, Rectangle bounds) {
+}
@@ -0,0 +1,147 @@
+package com.appflame.apidemos.utils;
+
+import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * An indexed, immutable copy of the UI tree, fetched with a single “getPageSource” round trip, that answers
+ * read-only queries (state, text, bounds) locally.
+ * <p>
+ * One snapshot per session is cached by {@link #current(AndroidDriver)} until it is invalidated, which the suite's
+ * command executor does after every command that is not a read, and page objects after every action. Reads
+ * between actions therefore cost no round trips, whichever page object makes them.
+ */
+@Slf4j
+public class UiSnapshot {
+
+    /**
+     * The properties nodes are indexed by.
+     */
+    public enum Key {
+        RESOURCE_ID(UiNode::resourceId),
+        CONTENT_DESC(UiNode::contentDesc),
+        TEXT(UiNode::text),
+        CLASS(UiNode::className);
+
+        private final Function<UiNode, String> property;
+
+        Key(Function<UiNode, String> property) {
+            this.property = property;
+        }
+    }
+
+    private static final Map<SessionId, UiSnapshot> CURRENT = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong FETCHES = new AtomicLong();
+    private static final AtomicLong HITS = new AtomicLong();
+
+    private final List<UiNode> nodes;
+    private final Map<Key, Map<String, List<UiNode>>> index = new EnumMap<>(Key.class);
+
+    private UiSnapshot(List<UiNode> nodes) {
+        this.nodes = List.copyOf(nodes);
+        for (Key key : Key.values()) {
+            index.put(key, this.nodes.stream()
+                    .filter(node -> !key.property.apply(node).isEmpty())
+                    .collect(Collectors.groupingBy(key.property)));
+        }
+    }
+
+    /**
+     * Indexes the given page source.
+     *
+     * @param pageSource the page source XML
+     * @return the snapshot
+     */
+    public static UiSnapshot of(String pageSource) {
+        return new UiSnapshot(PageSourceParser.nodes(pageSource));
+    }
+
+    /**
+     * Returns the driver's cached snapshot, fetching the page source if there is none.
+     *
+     * @param driver the driver whose screen to read
+     * @return the snapshot of the driver's screen as of the last action
+     */
+    public static UiSnapshot current(AndroidDriver driver) {
+        SessionId session = driver.getSessionId();
+        UiSnapshot cached = CURRENT.get(session);
+        if (cached != null) {
+            HITS.incrementAndGet();
+            return cached;
+        }
+        var snapshot = of(driver.getPageSource());
+        FETCHES.incrementAndGet();
+        CURRENT.put(session, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Drops the driver's cached snapshot, so the next read fetches the screen again.
+     *
+     * @param driver the driver whose screen may have changed
+     */
+    public static void invalidate(AndroidDriver driver) {
+        invalidate(driver.getSessionId());
+    }
+
+    /**
+     * Drops the session's cached snapshot, so the next read fetches the screen again.
+     *
+     * @param session the session whose screen may have changed
+     */
+    public static void invalidate(SessionId session) {
+        CURRENT.remove(session);
+    }
+
+    /**
+     * Logs how many snapshot reads were served from the cache and how many fetched the page source.
+     */
+    public static void logSummary() {
+        log.info("UI snapshots: {} fetched, {} reads served from cache", FETCHES.get(), HITS.get());
+    }
+
+    /**
+     * Returns every node, in document order.
+     */
+    public List<UiNode> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the nodes whose property equals value, in document order.
+     *
+     * @param key   the property to match
+     * @param value the value to match
+     * @return the matching nodes, possibly none
+     */
+    public List<UiNode> all(Key key, String value) {
+        return index.get(key).getOrDefault(value, List.of());
+    }
+
+    /**
+     * Returns the first node whose property equals value.
+     *
+     * @param key   the property to match
+     * @param value the value to match
+     * @return the first matching node
+     * @throws NoSuchElementException if no node matches, so waits treat it as “not yet”
+     */
+    public UiNode first(Key key, String value) {
+        List<UiNode> matches = all(key, value);
+        if (matches.isEmpty()) {
+            throw new NoSuchElementException("No node with " + key + " '" + value + "' in the UI snapshot");
+        }
+        return matches.get(0);
+    }
+}
@@ -0,0 +1,180 @@
+package com.appflame.apidemos.utils;
+
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates common XPath shapes into native UiAutomator2 locators, which the server resolves without
+ * serialising the whole hierarchy as it must for XPath.
+ * <p>
+ * Supported are paths of “//” and “/” steps, each a class name or “*” with optional “[@attr='value']”
+ * predicates (joined by “and”) on resource-id, text, content-desc and class, and an optional “[1]”:
+ * <ul>
+ *     <li>“//*[@resource-id='x']” becomes an id lookup, “//*[@content-desc='x']” an accessibility id lookup
+ *     and “//a.b.C” a class name lookup;</li>
+ *     <li>any other single step becomes a UiSelector;</li>
+ *     <li>several steps become nested UiSelector childSelectors, for single-element lookups only.</li>
+ * </ul>
+ * Single-step rewrites find the same first element as the XPath. Multi-step rewrites are only an approximation:
+ * UiAutomator treats “/” like “//”, so a deeper descendant that comes first in document order beats a direct
+ * child, and it ignores “[1]”, so a different parent may qualify. Callers must check a multi-step rewrite's
+ * result against the XPath's before trusting it; {@link #isExact(String)} tells the two apart.
+ * <p>
+ * Anything else, such as positions other than 1, functions or other attributes, is left as XPath.
+ * Callers are expected to fall back to the original locator when a rewrite finds nothing.
+ */
+public class XPathRewriter {
+    public static final String LOCATOR_REWRITE_ENV = "LOCATOR_REWRITE";
+
+    private static final Pattern STEP = Pattern.compile("(//?)([\\w.$]+|\\*)((?:\\[[^\\]]*])*)");
+    private static final Pattern PREDICATE = Pattern.compile("\\[([^\\]]*)]");
+    private static final Pattern CONDITION =
+            Pattern.compile("\\s*@([\\w-]+)\\s*=\\s*(?:'([^']*)'|\"([^\"]*)\")\\s*");
+    private static final Map<String, String> SELECTOR_METHODS = Map.of(
+            "resource-id", "resourceId",
+            "text", "text",
+            "content-desc", "description",
+            "class", "className");
+
+    private XPathRewriter() {
+    }
+
+    /**
+     * Returns whether the LOCATOR_REWRITE env var leaves rewriting enabled (the default).
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getenv().getOrDefault(LOCATOR_REWRITE_ENV, "true"));
+    }
+
+    /**
+     * Returns the XPath of an XPath locator.
+     *
+     * @param by any locator
+     * @return the XPath expression, or empty if by is not an XPath locator
+     */
+    public static Optional<String> xpathOf(By by) {
+        if (by instanceof By.Remotable remotable && "xpath".equals(remotable.getRemoteParameters().using())) {
+            return Optional.of(String.valueOf(remotable.getRemoteParameters().value()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Translates an XPath into a native locator.
+     *
+     * @param xpath    the XPath expression
+     * @param multiple whether the locator is used to find a list of elements
+     * @return the native locator, or empty if the XPath has no safe translation
+     */
+    public static Optional<By> rewrite(String xpath, boolean multiple) {
+        List<Step> steps = parse(xpath.trim());
+        if (steps == null || !steps.get(0).descendant()
+                || (multiple && (steps.size() > 1 || steps.get(0).first()))) {
+            return Optional.empty();
+        }
+
+        if (steps.size() == 1) {
+            Step step = steps.get(0);
+            if (step.className() == null && step.conditions().keySet().equals(Set.of("resource-id"))
+                    && step.conditions().get("resource-id").contains(":id/")) { // the id strategy prefixes bare ids
+                return Optional.of(AppiumBy.id(step.conditions().get("resource-id")));
+            }
+            if (step.className() == null && step.conditions().keySet().equals(Set.of("content-desc"))) {
+                return Optional.of(AppiumBy.accessibilityId(step.conditions().get("content-desc")));
+            }
+            if (step.className() != null && step.conditions().isEmpty()) {
+                return Optional.of(AppiumBy.className(step.className()));
+            }
+        }
+
+        String selector = null;
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            String stepSelector = selector(steps.get(i));
+            selector = selector == null ? stepSelector : stepSelector + ".childSelector(" + selector + ")";
+        }
+        return Optional.of(AppiumBy.androidUIAutomator(selector));
+    }
+
+    /**
+     * Returns whether the rewrite of the XPath, if any, is known to find what the XPath finds, i.e. whether the
+     * XPath is a single step.
+     *
+     * @param xpath the XPath expression
+     * @return false if the rewrite may find a different element than the XPath
+     */
+    public static boolean isExact(String xpath) {
+        List<Step> steps = parse(xpath.trim());
+        return steps != null && steps.size() == 1;
+    }
+
+    /**
+     * Splits an XPath into steps.
+     *
+     * @return the steps, or null if the XPath is not of a supported shape
+     */
+    private static List<Step> parse(String xpath) {
+        var steps = new ArrayList<Step>();
+        Matcher step = STEP.matcher(xpath);
+        int position = 0;
+        while (position < xpath.length()) {
+            if (!step.find(position) || step.start() != position) {
+                return null;
+            }
+            var conditions = new LinkedHashMap<String, String>();
+            boolean first = false;
+            Matcher predicate = PREDICATE.matcher(step.group(3));
+            while (predicate.find()) {
+                if (predicate.group(1).trim().equals("1")) {
+                    first = true;
+                } else if (!parseConditions(predicate.group(1), conditions)) {
+                    return null;
+                }
+            }
+            String className = step.group(2).equals("*") ? null : step.group(2);
+            steps.add(new Step(step.group(1).equals("//"), className, conditions, first));
+            position = step.end();
+        }
+        return steps.isEmpty() ? null : steps;
+    }
+
+    private static boolean parseConditions(String predicate, Map<String, String> conditions) {
+        for (String condition : predicate.split("\\s+and\\s+")) {
+            Matcher m = CONDITION.matcher(condition);
+            if (!m.matches() || !SELECTOR_METHODS.containsKey(m.group(1))
+                    || conditions.putIfAbsent(m.group(1), m.group(2) != null ? m.group(2) : m.group(3)) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String selector(Step step) {
+        var selector = new StringBuilder("new UiSelector()");
+        if (step.className() != null) {
+            appendCall(selector, "className", step.className());
+        }
+        step.conditions().forEach((attribute, value) -> appendCall(selector, SELECTOR_METHODS.get(attribute), value));
+        return selector.toString();
+    }
+
+    private static void appendCall(StringBuilder selector, String method, String argument) {
+        selector.append('.').append(method).append("(\"")
+                .append(argument.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\")");
+    }
+
+    /**
+     * @param first whether the step has a “[1]” predicate, which only a single-element lookup may drop
+     */
+    private record Step(boolean descendant, String className, Map<String, String> conditions, boolean first) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.pages.ApiDemosScreens;
+import com.appflame.apidemos.pages.NavigationMenuPage;
+import com.appflame.apidemos.pages.PreferencesFromCodePage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Drives page objects against the in-process fake Appium server. Needs no device.
+ */
+public class TestFakeAppiumServer {
+
+    @Test
+    public void testPageObjectsRunAgainstFake() {
+        try (var session = FakeSession.start()) {
+            ApiDemosScreens.preferencesFromCode(session.fake(), true, true, true, true);
+
+            PreferencesFromCodePage preferences = new NavigationMenuPage(session.driver()).goToPreferencesFromCode();
+            preferences.enablePreferenceSwitch();
+            preferences.enableCheckboxes();
+
+            Assert.assertTrue(preferences.areElementsEnabled(),
+                    "The switch and checkboxes are checked in the page source");
+            Assert.assertTrue(session.driver().getScreenshotAs(OutputType.BYTES).length > 0);
+            Assert.assertTrue(session.driver().getPageSource().contains("android:id/switch_widget"));
+        }
+    }
+
+    @Test
+    public void testLatencyIsInjectedPerRequest() {
+        try (var session = FakeSession.start(Duration.ofMillis(40), Duration.ofMillis(10))) {
+            long start = System.nanoTime();
+            long requests = session.roundTrips(() -> {
+                for (int i = 0; i < 5; i++) {
+                    session.driver().findElement(By.id("android:id/title")).getText();
+                }
+            });
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Assert.assertEquals(requests, 10);
+            Assert.assertTrue(elapsedMillis >= 10 * 30, "10 requests should take at least 10 × (40 - 10) ms, took "
+                    + elapsedMillis + " ms");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.utils.UiNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Checks of the reset strategies' screen detection against the fake Appium server. Needs no device.
+ */
+public class TestResetStrategy {
+
+    @Test
+    public void testRootMenuIsToldApartFromSubMenus() {
+        try (var session = FakeSession.start()) {
+            FakeScreen.show(session.fake(), menuScreen("Animation", "App", "Preference", "Views"));
+            Assert.assertTrue(ResetStrategy.isRootMenu(session.driver()));
+
+            FakeScreen.show(session.fake(),
+                    menuScreen("1. Preferences from XML", "3. Preference dependencies", "5. Preferences from code"));
+            Assert.assertFalse(ResetStrategy.isRootMenu(session.driver()), "Sub-menus share the root menu's activity");
+        }
+    }
+
+    private static List<UiNode> menuScreen(String... entries) {
+        return IntStream.range(0, entries.length)
+                .mapToObj(i -> new UiNode("android.widget.TextView", "android:id/text1", entries[i], entries[i],
+                        false, true, true, false, new Rectangle(0, 300 + i * 150, 1080, 150)))
+                .toList();
+    }
+}
@@ -3,26 +3,34 @@ package com.appflame.apidemos.listeners;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.appflame.apidemos.utils.CommandLatency;
+import com.appflame.apidemos.utils.LocatorProfile;
+import com.appflame.apidemos.utils.ScreenshotWriter;
 import io.appium.java_client.android.AndroidDriver;
-import org.apache.commons.io.FileUtils;
+import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebDriverException;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
 /**
  * TestNG listener that integrates ExtentReports for HTML reporting.
  */
+@Slf4j
 public class ExtentReportsListener implements ITestListener {
     private static final String OUTPUT_FOLDER = System.getProperty("user.dir") + "/test-output/";
     private static final String REPORT_NAME = "ExtentReport_" +
             new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".html";
+    private static final String LATENCY_FILE_NAME = "CommandLatency_" +
+            new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".json";
 
     private static ExtentReports extent;
     private static ThreadLocal<ExtentTest> testThread = new ThreadLocal<>();
@@ -48,13 +56,31 @@ public class ExtentReportsListener implements ITestListener {
     }
 
     /**
-     * Flushes and writes the ExtentReports to disk after all tests have finished.
+     * Waits for pending screenshot writes, exports the command latency histograms, then flushes and
+     * writes the ExtentReports (with a latency summary table) to disk after all tests have finished.
      *
      * @param context the TestNG context for the suite
      */
     @Override
     public void onFinish(ITestContext context) {
+        ScreenshotWriter.flush();
+        try {
+            CommandLatency.writeJson(Path.of(OUTPUT_FOLDER + "metrics/" + LATENCY_FILE_NAME));
+        } catch (IOException e) {
+            log.warn("Failed to write command latency: {}", e.getMessage());
+        }
+
         if (extent != null) {
+            String[][] latency = CommandLatency.summaryTable();
+            if (latency.length > 1) {
+                extent.createTest("Command latency summary")
+                        .info(MarkupHelper.createTable(latency, "table-sm"));
+            }
+            String[][] locators = LocatorProfile.summaryTable();
+            if (locators.length > 1) {
+                extent.createTest("Locator cost per page")
+                        .info(MarkupHelper.createTable(locators, "table-sm"));
+            }
             extent.flush();
         }
     }
@@ -97,15 +123,12 @@ public class ExtentReportsListener implements ITestListener {
         Object currentClass = result.getInstance();
         AndroidDriver driver = ((com.appflame.apidemos.tests.BaseTest) currentClass).driver;
 
-        var screenshotsDir = OUTPUT_FOLDER + "screenshots/";
-        new File(screenshotsDir).mkdirs();
-
-        var screenshotPath = screenshotsDir + result.getName() + ".png";
+        var screenshotPath = OUTPUT_FOLDER + "screenshots/" + result.getName() + ".png";
         try {
-            var src = driver.getScreenshotAs(OutputType.FILE);
-            FileUtils.copyFile(src, new File(screenshotPath));
+            var png = driver.getScreenshotAs(OutputType.BYTES);
+            ScreenshotWriter.write(Path.of(screenshotPath), png);
             test.addScreenCaptureFromPath(screenshotPath);
-        } catch (IOException e) {
+        } catch (WebDriverException e) {
             test.log(Status.WARNING, "Failed to attach screenshot: " + e.getMessage());
         }
     }
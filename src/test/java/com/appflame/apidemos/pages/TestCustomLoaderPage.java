@@ -0,0 +1,50 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeList;
+import com.appflame.apidemos.config.FakeSession;
+import com.appflame.apidemos.pages.CustomLoaderPage.Harvest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Round trips and scrolling of the result-row harvest, against the fake Appium server. Needs no device.
+ */
+public class TestCustomLoaderPage {
+
+    @Test
+    public void testResultRowsAreHarvestedInOneRequest() {
+        try (var session = FakeSession.start()) {
+            FakeList.show(session.fake(), 12);
+            var loader = new CustomLoaderPage(session.driver());
+
+            var texts = new ArrayList<String>();
+            Assert.assertEquals(session.roundTrips(() -> texts.addAll(loader.getAllResultTexts())), 1);
+            Assert.assertEquals(session.roundTrips(() -> Assert.assertTrue(loader.isResultsFilteredCorrectly("row"))),
+                    0, "The check should reuse the harvested rows, which end on screen");
+
+            Assert.assertEquals(texts.get(11), "Row 11");
+            Assert.assertEquals(loader.withHarvest(Harvest.PER_ROW).getAllResultTexts().size(), texts.size());
+        }
+    }
+
+    @Test
+    public void testResultRowsScrollLazily() {
+        try (var session = FakeSession.start()) {
+            FakeList.show(session.fake(), 40);
+            var loader = new CustomLoaderPage(session.driver());
+
+            var rows = loader.resultRows();
+            Assert.assertEquals(rows.stream().toList(), IntStream.range(0, 40).mapToObj(i -> "Row " + i).toList());
+            Assert.assertEquals(rows.scrolls(), 2, "Screens of 17 rows, scrolled by 12 rows each");
+
+            FakeList.show(session.fake(), 40);
+            Assert.assertFalse(loader.isResultsFilteredCorrectly("Row 1"));
+            var partial = loader.resultRows();
+            Assert.assertEquals(partial.stream().takeWhile(text -> !text.equals("Row 20")).count(), 20);
+            Assert.assertEquals(partial.scrolls(), 1, "Rows past the first mismatch should not be scrolled to");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeSession;
+import com.appflame.apidemos.utils.UiSnapshot;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Round trips of the pipelined “My preference” taps, against the fake Appium server. Needs no device.
+ */
+public class TestLaunchingPreferencesPage {
+
+    @Test
+    public void testRepeatedTapsCostTheSameForAnyCount() {
+        try (var session = FakeSession.start()) {
+            var preferences = new LaunchingPreferencesPage(session.driver());
+
+            ApiDemosScreens.launchingPreferences(session.fake(), 0);
+            long oneTap = session.roundTrips(() -> preferences.clickMyPreferenceNTimes(1));
+
+            ApiDemosScreens.launchingPreferences(session.fake(), 0);
+            UiSnapshot.invalidate(session.driver());
+            Assert.assertEquals(session.roundTrips(() -> preferences.clickMyPreferenceNTimes(10)), oneTap,
+                    "Ten taps should cost what one does");
+            Assert.assertTrue(session.driver().getPageSource().contains("text=\"10\""));
+        }
+    }
+}
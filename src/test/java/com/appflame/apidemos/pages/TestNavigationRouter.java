@@ -0,0 +1,26 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeSession;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Path selection of the navigation router, against the fake Appium server. Needs no device.
+ */
+public class TestNavigationRouter {
+
+    @Test
+    public void testNavigationSettlesOnTheFasterPath() {
+        try (var session = FakeSession.start(Duration.ofMillis(5), Duration.ZERO)) {
+            var menu = new NavigationMenuPage(session.driver()).withNavigation(NavigationRouter.Mode.AUTO);
+
+            Assert.assertEquals(session.roundTrips(menu::goToAnimationSeeking), 1,
+                    "The direct launch is measured first");
+            Assert.assertEquals(session.driver().currentActivity(), ".animation.AnimationSeeking");
+            Assert.assertTrue(session.roundTrips(menu::goToAnimationSeeking) > 1, "Then the menus are measured");
+            Assert.assertEquals(session.roundTrips(menu::goToAnimationSeeking), 1, "Then the direct launch wins");
+        }
+    }
+}
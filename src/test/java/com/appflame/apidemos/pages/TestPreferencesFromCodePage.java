@@ -0,0 +1,29 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeSession;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Round trips of the batched preference reads and writes, against the fake Appium server. Needs no device.
+ */
+public class TestPreferencesFromCodePage {
+
+    @Test
+    public void testPreferencesAreSetInOneBatch() {
+        try (var session = FakeSession.start()) {
+            ApiDemosScreens.preferencesFromCode(session.fake(), false, false, true, false);
+            var preferences = new PreferencesFromCodePage(session.driver());
+
+            long requests = session.roundTrips(() -> {
+                preferences.enableAll();
+                Assert.assertTrue(preferences.areElementsEnabled());
+            });
+            Assert.assertEquals(requests, 3, "One read, one batch of taps, one verifying read");
+            Assert.assertEquals(preferences.readStates(), new PreferencesFromCodePage.PreferenceStates(true,
+                    List.of(true, true, true)));
+        }
+    }
+}
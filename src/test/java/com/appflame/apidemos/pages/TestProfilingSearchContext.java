@@ -0,0 +1,57 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeAppiumServer;
+import com.appflame.apidemos.config.FakeSession;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * Trust decisions about XPath rewrites, against the fake Appium server, which returns a different element for
+ * every locator unless told otherwise. Needs no device.
+ */
+public class TestProfilingSearchContext {
+
+    @Test
+    public void testSingleStepRewritesAreTrustedAtOnce() {
+        try (var session = FakeSession.start()) {
+            var context = new ProfilingSearchContext(session.driver(), "SingleStepPage");
+            By title = By.xpath("//*[@resource-id='android:id/summary']");
+
+            Assert.assertEquals(session.roundTrips(() -> context.findElement(title)), 1);
+            Assert.assertEquals(session.roundTrips(() -> context.findElement(title)), 1);
+        }
+    }
+
+    @Test
+    public void testMultiStepRewriteThatFindsAnotherElementIsDropped() {
+        try (var session = FakeSession.start()) {
+            var context = new ProfilingSearchContext(session.driver(), "DisagreeingPage");
+            By row = By.xpath("//android.widget.ListView/android.widget.LinearLayout[1]/android.widget.TextView");
+            WebElement expected = session.driver().findElement(row);
+
+            Assert.assertEquals(session.roundTrips(() -> Assert.assertEquals(context.findElement(row), expected)), 2,
+                    "The rewrite is checked against the XPath");
+            Assert.assertEquals(session.roundTrips(() -> Assert.assertEquals(context.findElement(row), expected)), 1,
+                    "Only the XPath is used once the rewrite has disagreed with it");
+        }
+    }
+
+    @Test
+    public void testMultiStepRewriteIsTrustedOnceConfirmed() {
+        try (var session = FakeSession.start()) {
+            session.fake().route("POST", FakeAppiumServer.SESSION_PATH + "/element",
+                    (m, body) -> Map.of(FakeAppiumServer.ELEMENT_KEY, "the-only-element"));
+            var context = new ProfilingSearchContext(session.driver(), "AgreeingPage");
+            By row = By.xpath("//android.widget.ListView/android.widget.LinearLayout[1]/android.widget.CheckBox");
+
+            Assert.assertEquals(session.roundTrips(() -> context.findElement(row)), 2,
+                    "The rewrite is checked against the XPath");
+            Assert.assertEquals(session.roundTrips(() -> context.findElement(row)), 1,
+                    "Only the rewrite is used once the XPath has confirmed it");
+        }
+    }
+}
@@ -1,27 +1,73 @@
 package com.appflame.apidemos.tests;
 
+import com.appflame.apidemos.config.AppReset;
+import com.appflame.apidemos.config.AppResets;
 import com.appflame.apidemos.config.AppiumDriverFactory;
+import com.appflame.apidemos.config.DriverLease;
+import com.appflame.apidemos.config.DriverPool;
 import com.appflame.apidemos.listeners.ExtentReportsListener;
+import com.appflame.apidemos.pages.NavigationRouter;
+import com.appflame.apidemos.utils.AdaptiveWait;
+import com.appflame.apidemos.utils.LocatorProfile;
+import com.appflame.apidemos.utils.UiSnapshot;
 import io.appium.java_client.android.AndroidDriver;
+import lombok.extern.slf4j.Slf4j;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 
+import java.lang.reflect.Method;
+import java.util.Optional;
+
 /**
  * BaseTest is the superclass for all TestNG test classes.
+ * Each test class leases a device from the {@link DriverPool} for its whole run; sessions stay warm
+ * between classes and are shut down once the suite has finished. The app is reset with the strategy
+ * given by {@link AppReset} on the class (or the default one) when the lease is taken, and before
+ * every invocation of a method annotated with {@link AppReset}.
  */
+@Slf4j
 @Listeners(ExtentReportsListener.class)
 public class BaseTest {
-    public static final String BUNDLE_ID = "io.appium.android.apis";
+    public static final String BUNDLE_ID = AppiumDriverFactory.APP_PACKAGE;
     public AndroidDriver driver;
+    protected DriverLease lease;
 
     @BeforeClass(alwaysRun = true)
     public void setUp() {
-        driver = AppiumDriverFactory.createDriver();
+        long start = System.nanoTime();
+        lease = DriverPool.acquire(Optional.ofNullable(getClass().getAnnotation(AppReset.class))
+                .map(AppReset::value)
+                .orElse(AppResets.DEFAULT_STRATEGY));
+        driver = lease.driver();
+        log.info("Session setup for {} took {} ms ({} session on {})", getClass().getSimpleName(),
+                (System.nanoTime() - start) / 1_000_000, lease.warm() ? "warm" : "cold", lease.device().avdName());
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void resetApp(Method method) {
+        var reset = method.getAnnotation(AppReset.class);
+        if (reset != null) {
+            AppResets.reset(driver, reset.value());
+        }
     }
 
     @AfterClass(alwaysRun = true)
     public void tearDown() {
-        AppiumDriverFactory.stopServer();
+        if (lease != null) {
+            lease.close();
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutDownDrivers() {
+        AppResets.logSummary();
+        AdaptiveWait.logSummary();
+        UiSnapshot.logSummary();
+        LocatorProfile.logSummary();
+        NavigationRouter.logSummary();
+        DriverPool.shutdown();
     }
 }
@@ -3,6 +3,7 @@ package com.appflame.apidemos.tests;
 import com.appflame.apidemos.pages.AnimationSeekingPage;
 import com.appflame.apidemos.pages.NavigationMenuPage;
 import com.appflame.apidemos.utils.ImageUtils;
+import com.appflame.apidemos.utils.MotionRegion;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -23,14 +24,18 @@ public class TestAnimationSeeking extends BaseTest {
 
         AnimationSeekingPage animation = menu.goToAnimationSeeking();
 
-        BufferedImage beforeImg = ImageUtils.takeScreenshotAsImage(driver);
+        BufferedImage beforeImg = animation.takeAnimationScreenshot();
 
         double percentage = 0.5; // = 50%
         animation.setSeekBarToPercentageViaSwipe(percentage);
 
-        BufferedImage afterImg = ImageUtils.takeScreenshotAsImage(driver);
+        BufferedImage afterImg = animation.takeAnimationScreenshot();
 
-        int circleXAfter = ImageUtils.findMovementX(beforeImg, afterImg);
+        int circleXAfter = ImageUtils.locateMotion(beforeImg, afterImg)
+                .map(MotionRegion::centroidX)
+                .orElse(-1);
+        ImageUtils.release(beforeImg);
+        ImageUtils.release(afterImg);
         log.info("Circle X after swipe: {}", circleXAfter);
 
         Assert.assertTrue(circleXAfter > 0,
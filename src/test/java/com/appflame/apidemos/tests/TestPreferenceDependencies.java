@@ -1,5 +1,7 @@
 package com.appflame.apidemos.tests;
 
+import com.appflame.apidemos.config.AppResets;
+import com.appflame.apidemos.config.ResetStrategy;
 import com.appflame.apidemos.pages.NavigationMenuPage;
 import com.appflame.apidemos.pages.PreferenceDependenciesPage;
 import org.testng.Assert;
@@ -31,8 +33,7 @@ public class TestPreferenceDependencies extends BaseTest {
 
         preference.pressOkInDialog();
 
-        driver.terminateApp(BUNDLE_ID);
-        driver.activateApp(BUNDLE_ID);
+        AppResets.reset(driver, ResetStrategy.RESTART);
 
         PreferenceDependenciesPage preference1 = menu.goToPreferenceDependencies();
 
@@ -1,10 +1,10 @@
 package com.appflame.apidemos.tests;
 
+import com.appflame.apidemos.config.AppReset;
+import com.appflame.apidemos.config.ResetStrategy;
 import com.appflame.apidemos.pages.CustomLoaderPage;
 import com.appflame.apidemos.pages.NavigationMenuPage;
 import org.testng.Assert;
-import org.testng.annotations.AfterMethod;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -14,7 +14,7 @@ import java.util.List;
  * Test class that verifies the search filtering behavior on the “App → Loader → Custom” screen.
  * <p>
  * This test is data-driven: for each search term provided by {@link #searchData()}.
- * The app is terminated and re-activated between each data-driven iteration to ensure a clean state.
+ * The app is restarted before each data-driven iteration to ensure a clean state.
  */
 public class TestSearchFiltering extends BaseTest {
 
@@ -29,16 +29,7 @@ public class TestSearchFiltering extends BaseTest {
         };
     }
 
-    @BeforeMethod(alwaysRun = true)
-    public void activateApp() {
-        driver.activateApp(BUNDLE_ID);
-    }
-
-    @AfterMethod(alwaysRun = true)
-    public void terminateApp() {
-        driver.terminateApp(BUNDLE_ID);
-    }
-
+    @AppReset(ResetStrategy.RESTART)
     @Test(dataProvider = "searchTexts")
     public void testSearchFiltering(String text) {
         NavigationMenuPage menu = new NavigationMenuPage(driver);
@@ -0,0 +1,99 @@
+package com.appflame.apidemos.utils;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Randomized equivalence tests between the scalar and vector RGB diff kernels. Needs no device.
+ * <p>
+ * Skipped in JVMs without jdk.incubator.vector, except under the “vectorTest” task, which sets
+ * {@value #VECTOR_REQUIRED_PROPERTY} so that a missing kernel fails the build.
+ */
+public class TestDiffKernels {
+    static final String VECTOR_REQUIRED_PROPERTY = "vectorApi.required";
+    private static final long SEED = 20250605L;
+
+    private DiffKernel vector;
+
+    @BeforeClass
+    public void loadVectorKernel() {
+        vector = DiffKernels.vector().orElseThrow(() -> Boolean.getBoolean(VECTOR_REQUIRED_PROPERTY)
+                ? new IllegalStateException("jdk.incubator.vector is required but not available to this JVM")
+                : new SkipException("jdk.incubator.vector is not available to this JVM"));
+    }
+
+    @Test
+    public void testVectorKernelMatchesScalarOnRandomRows() {
+        var random = new Random(SEED);
+
+        for (int i = 0; i < 2_000; i++) {
+            int width = random.nextInt(300);
+            int beforeOff = random.nextInt(8);
+            int afterOff = random.nextInt(8);
+            int[] before = new int[beforeOff + width];
+            int[] after = new int[afterOff + width];
+            fillRow(random, before, beforeOff, after, afterOff, width, random.nextDouble());
+
+            DiffHistogram expected = DiffHistogram.acquire();
+            DiffHistogram actual = DiffHistogram.acquire();
+            DiffKernels.SCALAR.addRow(expected, before, beforeOff, after, afterOff, width);
+            vector.addRow(actual, before, beforeOff, after, afterOff, width);
+
+            Assert.assertEquals(actual.counts, expected.counts, "Counts differ for row #" + i + " of width " + width);
+            Assert.assertEquals(actual.sumX, expected.sumX, "X sums differ for row #" + i + " of width " + width);
+            expected.release();
+            actual.release();
+        }
+    }
+
+    @Test
+    public void testVectorKernelMatchesScalarOnSyntheticImages() {
+        var random = new Random(SEED + 1);
+
+        for (int i = 0; i < 50; i++) {
+            int width = 1 + random.nextInt(400);
+            int height = 1 + random.nextInt(200);
+            int[] before = new int[width * height];
+            int[] after = new int[width * height];
+            fillRow(random, before, 0, after, 0, before.length, random.nextDouble() * 0.1);
+
+            DiffHistogram expected = DiffHistogram.acquire();
+            DiffHistogram actual = DiffHistogram.acquire();
+            for (int y = 0; y < height; y++) {
+                DiffKernels.SCALAR.addRow(expected, before, y * width, after, y * width, width);
+                vector.addRow(actual, before, y * width, after, y * width, width);
+            }
+
+            Assert.assertEquals(actual.centroidX(), expected.centroidX(),
+                    "Centroid differs for " + width + "x" + height + " image #" + i);
+            Assert.assertEquals(actual.counts, expected.counts);
+            Assert.assertEquals(actual.sumX, expected.sumX);
+            expected.release();
+            actual.release();
+        }
+    }
+
+    /**
+     * Fills both rows with random ARGB pixels, where each “after” pixel differs from its “before”
+     * pixel with the given probability. Alpha-only changes are included, as they must be ignored.
+     */
+    private static void fillRow(Random random, int[] before, int beforeOff, int[] after, int afterOff,
+                                int width, double changeRate) {
+        for (int x = 0; x < width; x++) {
+            int rgb = random.nextInt();
+            before[beforeOff + x] = rgb;
+            double roll = random.nextDouble();
+            if (roll < changeRate) {
+                after[afterOff + x] = random.nextInt();
+            } else if (roll < changeRate * 1.2) {
+                after[afterOff + x] = rgb ^ 0xFF000000;
+            } else {
+                after[afterOff + x] = rgb;
+            }
+        }
+    }
+}
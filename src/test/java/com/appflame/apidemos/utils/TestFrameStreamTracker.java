@@ -0,0 +1,146 @@
+package com.appflame.apidemos.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tracks a synthetic MJPEG stream of a circle that starts moving right after a few static frames.
+ * Needs no device.
+ */
+public class TestFrameStreamTracker {
+    private static final int WIDTH = 240;
+    private static final int HEIGHT = 160;
+    private static final int FRAMES = 20;
+    private static final int STATIC_FRAMES = 5;
+    private static final double FPS = 10;
+    /** {@link #frame(int) frame(0)} to frame(FRAMES - 1) as JPEGs back to back, as screenrecord-style files are. */
+    private static final String RECORDING = "/mjpeg/seeking-240x160-10fps.mjpeg";
+
+    @Test
+    public void testRecordedStreamReportsTimeToFirstMotionAndRightwardTrajectory() throws Exception {
+        Path file = Path.of(getClass().getResource(RECORDING).toURI());
+
+        Trajectory trajectory = FrameStreamTracker.trackFile(file, FPS, 2);
+
+        Assert.assertEquals(trajectory.samples().size(), FRAMES - 1);
+        Assert.assertEquals(trajectory.timeToFirstMotion().orElseThrow(), Duration.ofMillis(500));
+        Assert.assertEquals(trajectory.withActionAt(300).timeToFirstMotion().orElseThrow(), Duration.ofMillis(200));
+        Assert.assertEquals(trajectory.withActionAt(750).timeToFirstMotion().orElseThrow(), Duration.ofMillis(50),
+                "Motion that started before the action is not its effect");
+
+        List<Trajectory.Sample> motion = trajectory.motionSamples();
+        Assert.assertEquals(motion.size(), FRAMES - STATIC_FRAMES);
+        for (int i = 1; i < motion.size(); i++) {
+            Assert.assertTrue(motion.get(i).region().centroidX() > motion.get(i - 1).region().centroidX(),
+                    "Centroid should keep moving right at frame #" + motion.get(i).frameIndex());
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void testFrameSizeChangeSkipsOnePairInsteadOfStalling() throws IOException {
+        var stream = new ByteArrayOutputStream();
+        for (int i = 0; i < FRAMES; i++) {
+            stream.write(jpeg(i < FRAMES / 2 ? frame(i) : rotated(frame(i))));
+        }
+        // longer than the queue, so a dead analyser would leave the reader blocked
+        for (int i = 0; i < 2 * FrameStreamTracker.QUEUE_CAPACITY; i++) {
+            stream.write(jpeg(i % 2 == 0 ? frame(0) : rotated(frame(0))));
+        }
+
+        Trajectory trajectory;
+        try (var tracker = FrameStreamTracker.start(new ByteArrayInputStream(stream.toByteArray()), 2)) {
+            trajectory = tracker.awaitEnd();
+        }
+
+        Assert.assertEquals(trajectory.samples().size(), FRAMES - 2,
+                "Only the pairs within one frame size should be compared");
+    }
+
+    @Test(timeOut = 10_000)
+    public void testTimeToFirstMotionIsMeasuredFromTheMarkedAction() throws Exception {
+        var pipe = new PipedOutputStream();
+        Trajectory trajectory;
+        try (var tracker = FrameStreamTracker.start(new PipedInputStream(pipe, 1 << 16), 2)) {
+            for (int i = 0; i < STATIC_FRAMES; i++) {
+                pipe.write(jpeg(frame(i)));
+            }
+            Thread.sleep(300);
+            tracker.markAction();
+            for (int i = STATIC_FRAMES; i < FRAMES; i++) {
+                pipe.write(jpeg(frame(i)));
+            }
+            pipe.close();
+            trajectory = tracker.awaitEnd();
+        }
+
+        long actionMs = trajectory.actionTimestampMs();
+        Trajectory.Sample firstMotion = trajectory.motionSamples().get(0);
+        Assert.assertTrue(firstMotion.timestampMs() >= actionMs, "Motion frames were only sent after the action");
+        Assert.assertEquals(trajectory.timeToFirstMotion().orElseThrow(),
+                Duration.ofMillis(firstMotion.timestampMs() - actionMs));
+    }
+
+    @Test
+    public void testLiveStreamSkipsMultipartHeaders() throws IOException {
+        var multipart = new ByteArrayOutputStream();
+        for (int i = 0; i < FRAMES; i++) {
+            multipart.write("--BoundaryString\r\nContent-Type: image/jpeg\r\n\r\n".getBytes());
+            multipart.write(jpeg(frame(i)));
+            multipart.write("\r\n".getBytes());
+        }
+
+        Trajectory trajectory;
+        try (var tracker = FrameStreamTracker.start(new ByteArrayInputStream(multipart.toByteArray()), 2)) {
+            trajectory = tracker.awaitEnd();
+        }
+
+        Assert.assertEquals(trajectory.samples().size(), FRAMES - 1);
+        Assert.assertEquals(trajectory.motionSamples().get(0).frameIndex(), STATIC_FRAMES);
+    }
+
+    /**
+     * Returns the frame turned a quarter, as after a screen rotation.
+     */
+    private static BufferedImage rotated(BufferedImage image) {
+        var rotated = new BufferedImage(image.getHeight(), image.getWidth(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                rotated.setRGB(image.getHeight() - 1 - y, x, image.getRGB(x, y));
+            }
+        }
+        return rotated;
+    }
+
+    /**
+     * Frame i shows the circle at its start position until STATIC_FRAMES, then 8px further right per frame.
+     */
+    private static BufferedImage frame(int i) {
+        var image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.setColor(Color.BLUE);
+        int x = 20 + Math.max(0, i - STATIC_FRAMES + 1) * 8;
+        graphics.fillOval(x, 60, 40, 40);
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.appflame.apidemos.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Randomized equivalence tests between the parallel and sequential movement scans. Needs no device.
+ */
+public class TestMotionDetector {
+    private static final long SEED = 20250602L;
+    private static final int[] IMAGE_TYPES = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR};
+
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testParallelScanMatchesSequentialOnRandomFrames() {
+        var random = new Random(SEED);
+
+        for (int i = 0; i < 12; i++) {
+            int width = 520 + random.nextInt(400);
+            int height = 520 + random.nextInt(400);
+            Assert.assertTrue((long) width * height >= MotionDetector.PARALLEL_THRESHOLD_PIXELS);
+            int type = IMAGE_TYPES[i % IMAGE_TYPES.length];
+
+            BufferedImage before = noise(random, width, height, type);
+            BufferedImage after = copy(before, type);
+            int changes = i == 0 ? 0 : 1 + random.nextInt(5); // the first pair is identical
+            for (int c = 0; c < changes; c++) {
+                paintRectangle(random, after);
+            }
+
+            Assert.assertEquals(MotionDetector.findMovementXParallel(before, after, pool),
+                    MotionDetector.findMovementX(before, after),
+                    "Frame pair #" + i + " (" + width + "x" + height + ", " + changes + " changes)");
+        }
+    }
+
+    private static BufferedImage noise(Random random, int width, int height, int type) {
+        var image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage image, int type) {
+        var copy = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        copy.setData(image.getData());
+        return copy;
+    }
+
+    /**
+     * Paints a random-coloured rectangle of random size anywhere on the image, possibly across stripe borders.
+     */
+    private static void paintRectangle(Random random, BufferedImage image) {
+        int w = 1 + random.nextInt(image.getWidth() / 2);
+        int h = 1 + random.nextInt(image.getHeight() / 2);
+        int x0 = random.nextInt(image.getWidth() - w);
+        int y0 = random.nextInt(image.getHeight() - h);
+        int rgb = random.nextInt(0x1000000);
+        for (int y = y0; y < y0 + h; y++) {
+            for (int x = x0; x < x0 + w; x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+    }
+}
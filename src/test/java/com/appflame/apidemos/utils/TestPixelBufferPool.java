@@ -0,0 +1,29 @@
+package com.appflame.apidemos.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageTypeSpecifier;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Checks which images the pool takes back. Needs no device.
+ */
+public class TestPixelBufferPool {
+
+    @Test
+    public void testCropsAreNotPooled() {
+        var type = ImageTypeSpecifier.createFromBufferedImageType(BufferedImage.TYPE_INT_RGB);
+        BufferedImage frame = PixelBufferPool.borrowImage(type, 301, 203);
+        BufferedImage crop = ImageUtils.crop(frame, new Rectangle(100, 50, 97, 61));
+
+        ImageUtils.release(crop);
+        Assert.assertNotSame(PixelBufferPool.borrowImage(type, 97, 61), crop,
+                "A crop shares its frame's raster and must not be handed out for decoding");
+
+        BufferedImage whole = PixelBufferPool.borrowImage(type, 97, 61);
+        ImageUtils.release(whole);
+        Assert.assertSame(PixelBufferPool.borrowImage(type, 97, 61), whole);
+    }
+}
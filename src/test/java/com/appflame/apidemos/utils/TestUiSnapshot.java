@@ -0,0 +1,50 @@
+package com.appflame.apidemos.utils;
+
+import com.appflame.apidemos.config.FakeSession;
+import com.appflame.apidemos.pages.ApiDemosScreens;
+import com.appflame.apidemos.pages.PreferenceDependenciesPage;
+import com.appflame.apidemos.pages.PreferencesFromCodePage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * Checks that page objects share one snapshot between actions, against the fake Appium server. Needs no device.
+ */
+public class TestUiSnapshot {
+
+    @Test
+    public void testSnapshotReadsBetweenActionsAreFree() {
+        try (var session = FakeSession.start()) {
+            ApiDemosScreens.preferencesFromCode(session.fake(), true, true, true, true);
+            var preferences = new PreferencesFromCodePage(session.driver());
+
+            long requests = session.roundTrips(() -> {
+                Assert.assertTrue(preferences.areElementsEnabled());
+                Assert.assertTrue(preferences.areElementsEnabled());
+            });
+            Assert.assertEquals(requests, 1, "Both reads should share one snapshot");
+
+            ApiDemosScreens.preferencesFromCode(session.fake(), true, true, false, true);
+            new PreferenceDependenciesPage(session.driver()).toggleWifiCheckbox();
+            Assert.assertFalse(preferences.areElementsEnabled(), "A click on any page should drop the snapshot");
+        }
+    }
+
+    @Test
+    public void testDirectDriverCallsDropTheSnapshot() {
+        try (var session = FakeSession.start()) {
+            ApiDemosScreens.preferencesFromCode(session.fake(), true, true, true, true);
+            var preferences = new PreferencesFromCodePage(session.driver());
+            Assert.assertTrue(preferences.areElementsEnabled());
+
+            ApiDemosScreens.preferencesFromCode(session.fake(), true, true, false, true);
+            session.driver().executeScript("mobile: getCurrentActivity", Map.of());
+            Assert.assertTrue(preferences.areElementsEnabled(), "A read should keep the snapshot");
+
+            session.driver().executeScript("mobile: swipeGesture", Map.of("direction", "right", "percent", 0.5));
+            Assert.assertFalse(preferences.areElementsEnabled(), "A swipe outside any page should drop the snapshot");
+        }
+    }
+}
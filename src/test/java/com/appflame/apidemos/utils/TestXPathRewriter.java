@@ -0,0 +1,57 @@
+package com.appflame.apidemos.utils;
+
+import io.appium.java_client.AppiumBy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+/**
+ * Translations of the XPath shapes page objects use into native locators. Needs no device.
+ */
+public class TestXPathRewriter {
+
+    @Test
+    public void testSingleStepsBecomeNativeStrategies() {
+        Assert.assertEquals(XPathRewriter.rewrite("//*[@resource-id='android:id/checkbox']", true),
+                Optional.of(AppiumBy.id("android:id/checkbox")));
+        Assert.assertEquals(XPathRewriter.rewrite("//*[@content-desc=\"Search\"]", false),
+                Optional.of(AppiumBy.accessibilityId("Search")));
+        Assert.assertEquals(XPathRewriter.rewrite("//android.widget.CheckBox", true),
+                Optional.of(AppiumBy.className("android.widget.CheckBox")));
+        Assert.assertEquals(
+                XPathRewriter.rewrite("//android.widget.CheckBox[@resource-id=\"android:id/checkbox\"]", true),
+                Optional.of(AppiumBy.androidUIAutomator("new UiSelector().className(\"android.widget.CheckBox\")"
+                        + ".resourceId(\"android:id/checkbox\")")));
+    }
+
+    @Test
+    public void testPathsBecomeChildSelectorsForSingleLookupsOnly() {
+        String xpath = "//android.widget.ListView[@resource-id=\"android:id/list\"]"
+                + "/android.widget.LinearLayout[1]/android.widget.RelativeLayout";
+
+        Assert.assertEquals(XPathRewriter.rewrite(xpath, false), Optional.of(AppiumBy.androidUIAutomator(
+                "new UiSelector().className(\"android.widget.ListView\").resourceId(\"android:id/list\")"
+                        + ".childSelector(new UiSelector().className(\"android.widget.LinearLayout\")"
+                        + ".childSelector(new UiSelector().className(\"android.widget.RelativeLayout\")))")));
+        Assert.assertEquals(XPathRewriter.rewrite(xpath, true), Optional.empty());
+    }
+
+    @Test
+    public void testOnlySingleStepsAreExact() {
+        Assert.assertTrue(XPathRewriter.isExact("//android.widget.CheckBox[@resource-id=\"android:id/checkbox\"]"));
+        Assert.assertTrue(XPathRewriter.isExact("//android.widget.TextView[1]"));
+        Assert.assertFalse(XPathRewriter.isExact("//android.widget.ListView/android.widget.LinearLayout[1]"));
+        Assert.assertFalse(XPathRewriter.isExact("//*[contains(@text, 'Wi')]"));
+    }
+
+    @Test
+    public void testUnsupportedShapesAreLeftAlone() {
+        Assert.assertEquals(XPathRewriter.rewrite("//android.widget.TextView[2]", false), Optional.empty());
+        Assert.assertEquals(XPathRewriter.rewrite("//*[contains(@text, 'Wi')]", false), Optional.empty());
+        Assert.assertEquals(XPathRewriter.rewrite("//*[@checked='true']", false), Optional.empty());
+        Assert.assertEquals(XPathRewriter.rewrite("/hierarchy/android.widget.FrameLayout", false), Optional.empty());
+        Assert.assertEquals(XPathRewriter.rewrite("//*[@text='a\"b']", false), Optional.of(AppiumBy.androidUIAutomator(
+                "new UiSelector().text(\"a\\\"b\")")));
+    }
+}
@@ -0,0 +1,73 @@
+package com.appflame.apidemos.config;
+
+import java.util.Map;
+
+/**
+ * A scrollable ListView of generated rows (“Row 0”, “Row 1”, …) shown by a {@link FakeAppiumServer}, of which
+ * {@link #VISIBLE_ROWS} are on screen at a time. “mobile: scrollGesture” moves that window like a real list
+ * would, and list finds return one element per row.
+ */
+public class FakeList {
+    public static final int ROW_HEIGHT = 150;
+    // the last visible row is clipped
+    public static final int VISIBLE_ROWS = (FakeAppiumServer.SCREEN_HEIGHT + ROW_HEIGHT - 1) / ROW_HEIGHT;
+
+    private final FakeAppiumServer fake;
+    private final int rows;
+    private int offset;
+
+    private FakeList(FakeAppiumServer fake, int rows) {
+        this.fake = fake;
+        this.rows = rows;
+    }
+
+    /**
+     * Shows a list of the given number of rows on the fake, scrolled to the top.
+     *
+     * @param fake the fake server
+     * @param rows the number of rows
+     * @return the list
+     */
+    public static FakeList show(FakeAppiumServer fake, int rows) {
+        var list = new FakeList(fake, rows);
+        fake.setListSize(rows);
+        fake.onScript("mobile: scrollGesture", list::scroll);
+        list.render();
+        return list;
+    }
+
+    /**
+     * Moves the visible window by the gesture's percentage of a screen.
+     *
+     * @return whether the list can scroll further in the gesture's direction
+     */
+    private synchronized boolean scroll(Map<?, ?> args) {
+        boolean down = !"up".equals(args.get("direction"));
+        double percent = args.get("percent") instanceof Number number ? number.doubleValue() : 1.0;
+        int step = Math.max(1, (int) (VISIBLE_ROWS * percent));
+        int lastOffset = Math.max(0, rows - VISIBLE_ROWS);
+
+        offset = Math.max(0, Math.min(lastOffset, offset + (down ? step : -step)));
+        render();
+        return down ? offset < lastOffset : offset > 0;
+    }
+
+    private void render() {
+        var xml = new StringBuilder("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>")
+                .append("<hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"")
+                .append(FakeAppiumServer.SCREEN_WIDTH).append("\" height=\"").append(FakeAppiumServer.SCREEN_HEIGHT)
+                .append("\">")
+                .append("<android.widget.ListView index=\"0\" package=\"").append(AppiumDriverFactory.APP_PACKAGE)
+                .append("\" class=\"android.widget.ListView\" resource-id=\"android:id/list\"")
+                .append(" enabled=\"true\" displayed=\"true\" bounds=\"[0,0][1080,2424]\">");
+        for (int i = offset; i < Math.min(rows, offset + VISIBLE_ROWS); i++) {
+            int top = (i - offset) * ROW_HEIGHT;
+            xml.append("<android.widget.TextView index=\"").append(i)
+                    .append("\" class=\"android.widget.TextView\" resource-id=\"android:id/text1\" text=\"Row ")
+                    .append(i).append("\" checked=\"false\" enabled=\"true\" displayed=\"true\" bounds=\"[0,")
+                    .append(top).append("][1080,").append(Math.min(top + ROW_HEIGHT, FakeAppiumServer.SCREEN_HEIGHT))
+                    .append("]\" />");
+        }
+        fake.setPageSource(xml.append("</android.widget.ListView></hierarchy>").toString());
+    }
+}
@@ -0,0 +1,180 @@
+package com.appflame.apidemos.config;
+
+import com.appflame.apidemos.utils.UiNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A flat screen of {@link UiNode}s shown by a {@link FakeAppiumServer}, as direct children of the hierarchy root.
+ * <p>
+ * Nodes do nothing when touched unless a {@link Reaction} is registered for their resource id with
+ * {@link #onTap(String, Reaction)}: a W3C actions touch then runs the reaction of every enabled node under it.
+ * Pointer moves are taken to be relative to the viewport.
+ */
+public class FakeScreen {
+    /** Toggles the “checked” state of the tapped node, like a checkbox or switch. */
+    public static final Reaction TOGGLE = (screen, index) -> screen.update(index, node -> new UiNode(
+            node.className(), node.resourceId(), node.contentDesc(), node.text(), !node.checked(), node.enabled(),
+            node.displayed(), node.selected(), node.bounds()));
+
+    private final FakeAppiumServer fake;
+    private final List<UiNode> nodes;
+    private final Map<String, Reaction> reactions = new ConcurrentHashMap<>();
+
+    /**
+     * What the app does when a node is tapped.
+     */
+    @FunctionalInterface
+    public interface Reaction {
+        /**
+         * @param screen the screen, to update
+         * @param index  the tapped node's index
+         */
+        void tapped(FakeScreen screen, int index);
+    }
+
+    private FakeScreen(FakeAppiumServer fake, List<UiNode> nodes) {
+        this.fake = fake;
+        this.nodes = new ArrayList<>(nodes);
+    }
+
+    /**
+     * Shows the nodes on the fake, replacing its page source, and makes touches act on them.
+     *
+     * @param fake  the fake server
+     * @param nodes the screen's nodes, top to bottom
+     * @return the screen
+     */
+    public static FakeScreen show(FakeAppiumServer fake, List<UiNode> nodes) {
+        var screen = new FakeScreen(fake, nodes);
+        fake.route("POST", FakeAppiumServer.SESSION_PATH + "/actions", (m, body) -> {
+            screen.tap(body);
+            return null;
+        });
+        screen.render();
+        return screen;
+    }
+
+    /**
+     * Returns a reaction that increments the number shown by the nodes with the given resource id, like a
+     * counter widget that counts taps on its row.
+     *
+     * @param counterId the counter's resource id
+     * @return the reaction
+     */
+    public static Reaction increments(String counterId) {
+        return (screen, index) -> screen.updateAll(counterId, node -> new UiNode(node.className(), node.resourceId(),
+                node.contentDesc(), String.valueOf(Integer.parseInt(node.text()) + 1), node.checked(), node.enabled(),
+                node.displayed(), node.selected(), node.bounds()));
+    }
+
+    /**
+     * Makes taps on the nodes with the given resource id run the reaction.
+     *
+     * @param resourceId the tapped nodes' resource id
+     * @param reaction   what the app does
+     * @return this screen
+     */
+    public FakeScreen onTap(String resourceId, Reaction reaction) {
+        reactions.put(resourceId, reaction);
+        return this;
+    }
+
+    /**
+     * Replaces the node at the given index.
+     */
+    public synchronized void update(int index, UnaryOperator<UiNode> change) {
+        nodes.set(index, change.apply(nodes.get(index)));
+    }
+
+    /**
+     * Replaces every node with the given resource id.
+     */
+    public synchronized void updateAll(String resourceId, UnaryOperator<UiNode> change) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).resourceId().equals(resourceId)) {
+                update(i, change);
+            }
+        }
+    }
+
+    private synchronized void tap(Map<String, Object> body) {
+        if (!(body.get("actions") instanceof List<?> sources)) {
+            return;
+        }
+        for (Object source : sources) {
+            if (!(source instanceof Map<?, ?> input) || !(input.get("actions") instanceof List<?> actions)) {
+                continue;
+            }
+            int x = 0;
+            int y = 0;
+            for (Object action : actions) {
+                if (!(action instanceof Map<?, ?> step)) {
+                    continue;
+                }
+                if ("pointerMove".equals(step.get("type"))) {
+                    x = step.get("x") instanceof Number number ? number.intValue() : x;
+                    y = step.get("y") instanceof Number number ? number.intValue() : y;
+                } else if ("pointerDown".equals(step.get("type"))) {
+                    tapAt(x, y);
+                }
+            }
+        }
+        render();
+    }
+
+    private void tapAt(int x, int y) {
+        var tapped = new ArrayList<Integer>();
+        for (int i = 0; i < nodes.size(); i++) {
+            UiNode node = nodes.get(i);
+            if (node.enabled() && node.bounds() != null && node.bounds().contains(x, y)
+                    && reactions.containsKey(node.resourceId())) {
+                tapped.add(i);
+            }
+        }
+        tapped.forEach(i -> reactions.get(nodes.get(i).resourceId()).tapped(this, i));
+    }
+
+    private synchronized void render() {
+        var xml = new StringBuilder("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>")
+                .append("<hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"")
+                .append(FakeAppiumServer.SCREEN_WIDTH).append("\" height=\"").append(FakeAppiumServer.SCREEN_HEIGHT)
+                .append("\">");
+        for (int i = 0; i < nodes.size(); i++) {
+            UiNode node = nodes.get(i);
+            xml.append('<').append(node.className()).append(" index=\"").append(i).append('"');
+            attribute(xml, "class", node.className());
+            attribute(xml, "package", AppiumDriverFactory.APP_PACKAGE);
+            attribute(xml, "resource-id", node.resourceId());
+            attribute(xml, "content-desc", node.contentDesc());
+            attribute(xml, "text", node.text());
+            attribute(xml, "checked", String.valueOf(node.checked()));
+            attribute(xml, "enabled", String.valueOf(node.enabled()));
+            attribute(xml, "displayed", String.valueOf(node.displayed()));
+            attribute(xml, "selected", String.valueOf(node.selected()));
+            if (node.bounds() != null) {
+                var b = node.bounds();
+                attribute(xml, "bounds", "[" + b.x + "," + b.y + "][" + (b.x + b.width) + "," + (b.y + b.height) + "]");
+            }
+            xml.append(" />");
+        }
+        fake.setPageSource(xml.append("</hierarchy>").toString());
+    }
+
+    private static void attribute(StringBuilder xml, String name, String value) {
+        xml.append(' ').append(name).append("=\"");
+        value.chars().forEach(c -> {
+            switch (c) {
+                case '&' -> xml.append("&amp;");
+                case '<' -> xml.append("&lt;");
+                case '"' -> xml.append("&quot;");
+                default -> xml.append((char) c);
+            }
+        });
+        xml.append('"');
+    }
+}
@@ -0,0 +1,62 @@
+package com.appflame.apidemos.config;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+
+import java.time.Duration;
+
+/**
+ * A driver session against a fresh {@link FakeAppiumServer}, built like the suite's sessions (configured HTTP
+ * client, timed command executor), for device-free tests and benchmarks of page objects.
+ */
+public class FakeSession implements AutoCloseable {
+    private final FakeAppiumServer fake;
+    private final AndroidDriver driver;
+
+    private FakeSession(FakeAppiumServer fake) {
+        this.fake = fake;
+        var clientConfig = HttpClientSettings.fromEnvironment().toClientConfig(fake.url());
+        this.driver = new AndroidDriver(new TimedCommandExecutor(clientConfig), new UiAutomator2Options());
+    }
+
+    /**
+     * Starts a fake server without latency and opens a session on it.
+     */
+    public static FakeSession start() {
+        return start(Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * Starts a fake server and opens a session on it.
+     *
+     * @param latency delay added to every request
+     * @param jitter  maximum random deviation from the latency, in both directions
+     * @return the open session
+     */
+    public static FakeSession start(Duration latency, Duration jitter) {
+        return new FakeSession(FakeAppiumServer.start(latency, jitter));
+    }
+
+    public FakeAppiumServer fake() {
+        return fake;
+    }
+
+    public AndroidDriver driver() {
+        return driver;
+    }
+
+    /**
+     * Runs the action and returns the number of requests it made, i.e. its round trips.
+     */
+    public long roundTrips(Runnable action) {
+        long before = fake.requestCount();
+        action.run();
+        return fake.requestCount() - before;
+    }
+
+    @Override
+    public void close() {
+        driver.quit();
+        fake.stop();
+    }
+}
@@ -0,0 +1,60 @@
+package com.appflame.apidemos.pages;
+
+import com.appflame.apidemos.config.FakeAppiumServer;
+import com.appflame.apidemos.config.FakeScreen;
+import com.appflame.apidemos.utils.UiNode;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ApiDemos screens for the fake Appium server, with the widgets and resource ids the page objects look for, and
+ * the app's reactions to taps on them.
+ */
+public class ApiDemosScreens {
+    private static final String MY_PREFERENCE_COUNTER_ID = "io.appium.android.apis:id/mypreference_widget";
+
+    private ApiDemosScreens() {
+    }
+
+    /**
+     * Shows a “Preferences from code” screen: a switch followed by a column of checkboxes, each toggled by a tap.
+     *
+     * @param fake              the fake server
+     * @param switchChecked     whether the switch is on
+     * @param checkboxesChecked whether each checkbox is checked, top to bottom
+     * @return the screen
+     */
+    public static FakeScreen preferencesFromCode(FakeAppiumServer fake, boolean switchChecked,
+                                                 boolean... checkboxesChecked) {
+        var nodes = new ArrayList<UiNode>();
+        nodes.add(new UiNode("android.widget.Switch", "android:id/switch_widget", "", "", switchChecked, true, true,
+                false, new Rectangle(900, 300, 140, 100)));
+        for (int i = 0; i < checkboxesChecked.length; i++) {
+            nodes.add(new UiNode("android.widget.CheckBox", "android:id/checkbox", "", "", checkboxesChecked[i], true,
+                    true, false, new Rectangle(900, 500 + i * 200, 140, 100)));
+        }
+        return FakeScreen.show(fake, nodes)
+                .onTap("android:id/switch_widget", FakeScreen.TOGGLE)
+                .onTap("android:id/checkbox", FakeScreen.TOGGLE);
+    }
+
+    /**
+     * Shows a “Launching preferences” preference screen: the “My preference” row, whose counter widget counts
+     * taps on the row's title. The title covers the bounds every fake element reports, so tapping an element
+     * counts.
+     *
+     * @param fake    the fake server
+     * @param counter the count shown
+     * @return the screen
+     */
+    public static FakeScreen launchingPreferences(FakeAppiumServer fake, int counter) {
+        return FakeScreen.show(fake, List.of(
+                        new UiNode("android.widget.TextView", "android:id/title", "", "My preference", false, true,
+                                true, false, new Rectangle(0, 0, 880, 200)),
+                        new UiNode("android.widget.TextView", MY_PREFERENCE_COUNTER_ID, "", String.valueOf(counter),
+                                false, true, true, false, new Rectangle(900, 50, 140, 100))))
+                .onTap("android:id/title", FakeScreen.increments(MY_PREFERENCE_COUNTER_ID));
+    }
+}
@@ -0,0 +1,67 @@
+package com.appflame.apidemos.utils;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DiffKernel} built on the jdk.incubator.vector API.
+ * <p>
+ * Packed RGB ints are processed {@code SPECIES.length()} at a time: lanes are XOR-compared first so
+ * runs of unchanged pixels are skipped with a single mask test, and only chunks holding a change get
+ * their per-channel absolute differences computed in vector lanes. The histogram update itself stays
+ * scalar. Only loaded when the module is present; see {@link DiffKernels}.
+ */
+final class VectorDiffKernel implements DiffKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    VectorDiffKernel() {
+        if (SPECIES.length() > DiffKernels.MAX_LANES) {
+            throw new IllegalStateException("Unsupported vector length: " + SPECIES.length());
+        }
+    }
+
+    @Override
+    public void addRow(DiffHistogram histogram, int[] before, int beforeOff, int[] after, int afterOff, int width) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(width);
+        int[] counts = histogram.counts;
+        long[] sumX = histogram.sumX;
+        int[] diffs = histogram.laneScratch;
+
+        int x = 0;
+        for (; x < bound; x += lanes) {
+            IntVector rgb1 = IntVector.fromArray(SPECIES, before, beforeOff + x);
+            IntVector rgb2 = IntVector.fromArray(SPECIES, after, afterOff + x);
+
+            VectorMask<Integer> changed = rgb1.lanewise(VectorOperators.XOR, rgb2)
+                    .and(0xFFFFFF)
+                    .compare(VectorOperators.NE, 0);
+            if (!changed.anyTrue()) {
+                continue;
+            }
+
+            channelDiff(rgb1, rgb2, 16)
+                    .add(channelDiff(rgb1, rgb2, 8))
+                    .add(channelDiff(rgb1, rgb2, 0))
+                    .intoArray(diffs, 0);
+
+            for (int lane = 0; lane < lanes; lane++) {
+                int diff = diffs[lane];
+                if (diff != 0) {
+                    counts[diff]++;
+                    sumX[diff] += x + lane;
+                }
+            }
+        }
+
+        ScalarDiffKernel.addRange(histogram, before, beforeOff, after, afterOff, x, width);
+    }
+
+    private static IntVector channelDiff(IntVector rgb1, IntVector rgb2, int shift) {
+        IntVector c1 = rgb1.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+        IntVector c2 = rgb2.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+        return c2.sub(c1).abs();
+    }
+}